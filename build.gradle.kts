@@ -10,6 +10,7 @@ plugins {
     com.bmuschko.gradle.docker.`integration-test`
     com.bmuschko.gradle.docker.`functional-test`
     com.bmuschko.gradle.docker.`doc-test`
+    com.bmuschko.gradle.docker.jmh
     com.bmuschko.gradle.docker.`additional-artifacts`
     com.bmuschko.gradle.docker.`shaded-artifacts`
     com.bmuschko.gradle.docker.`user-guide`
@@ -39,6 +40,8 @@ dependencies {
     testRuntimeOnly(libs.cglib.nodep)
     testImplementation(libs.zt.zip)
     functionalTestImplementation(libs.commons.vfs2)
+    jmhImplementation(libs.jmh.core)
+    jmhAnnotationProcessor(libs.jmh.generator.annprocess)
 }
 
 java {
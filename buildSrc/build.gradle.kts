@@ -64,6 +64,10 @@ gradlePlugin {
             id = "com.bmuschko.gradle.docker.doc-test"
             implementationClass = "com.bmuschko.gradle.docker.DocumentationTestPlugin"
         }
+        register("jmh-plugin") {
+            id = "com.bmuschko.gradle.docker.jmh"
+            implementationClass = "com.bmuschko.gradle.docker.JmhPlugin"
+        }
         register("additional-artifacts-plugin") {
             id = "com.bmuschko.gradle.docker.additional-artifacts"
             implementationClass = "com.bmuschko.gradle.docker.AdditionalArtifactsPlugin"
@@ -0,0 +1,43 @@
+package com.bmuschko.gradle.docker
+
+import org.gradle.api.Plugin
+import org.gradle.api.Project
+import org.gradle.api.plugins.JavaPluginExtension
+import org.gradle.api.tasks.JavaExec
+import org.gradle.kotlin.dsl.get
+import org.gradle.kotlin.dsl.getValue
+import org.gradle.kotlin.dsl.provideDelegate
+import org.gradle.process.CommandLineArgumentProvider
+
+class JmhPlugin : Plugin<Project> {
+    override fun apply(project: Project): Unit = project.run {
+        val sourceSets = project.extensions.getByType(JavaPluginExtension::class.java).sourceSets
+        val testRuntimeClasspath by configurations
+
+        val jmhSourceSet = sourceSets.create("jmh") {
+            java.srcDir("src/jmh/java")
+            resources.srcDir("src/jmh/resources")
+            compileClasspath += sourceSets["main"]!!.output + testRuntimeClasspath
+            runtimeClasspath += output + compileClasspath
+        }
+
+        val includes = providers.gradleProperty("jmh.includes")
+        val resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+
+        tasks.register("jmh", JavaExec::class.java) {
+            description = "Runs the JMH benchmarks. Benchmarks can be selected with -Pjmh.includes=<regex>."
+            group = "verification"
+            classpath = jmhSourceSet.runtimeClasspath
+            mainClass.set("org.openjdk.jmh.Main")
+            outputs.file(resultsFile)
+            outputs.upToDateWhen { false }
+            argumentProviders.add(CommandLineArgumentProvider {
+                includes.map { listOf(it) }.getOrElse(emptyList()) +
+                    listOf("-rf", "json", "-rff", resultsFile.get().asFile.absolutePath)
+            })
+            doFirst {
+                resultsFile.get().asFile.parentFile.mkdirs()
+            }
+        }
+    }
+}
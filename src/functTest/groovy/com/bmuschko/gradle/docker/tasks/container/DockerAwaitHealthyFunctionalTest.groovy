@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container
+
+import com.bmuschko.gradle.docker.AbstractGroovyDslFunctionalTest
+import org.gradle.testkit.runner.BuildResult
+import org.gradle.testkit.runner.TaskOutcome
+
+class DockerAwaitHealthyFunctionalTest extends AbstractGroovyDslFunctionalTest {
+
+    def "Wait for container to become healthy"() {
+        given:
+        buildFile << containerUsage("'touch /tmp/ready'")
+
+        when:
+        BuildResult result = build('awaitHealthy')
+
+        then:
+        result.output.contains('is healthy.')
+    }
+
+    def "Fail if container becomes unhealthy"() {
+        given:
+        buildFile << containerUsage("'exit 1'")
+
+        when:
+        BuildResult result = buildAndFail('awaitHealthy')
+
+        then:
+        result.task(':awaitHealthy').outcome == TaskOutcome.FAILED
+        result.output.contains('is unhealthy.')
+    }
+
+    static String containerUsage(String healthCommand) {
+        """
+            import com.bmuschko.gradle.docker.tasks.image.DockerPullImage
+            import com.bmuschko.gradle.docker.tasks.container.DockerCreateContainer
+            import com.bmuschko.gradle.docker.tasks.container.DockerStartContainer
+            import com.bmuschko.gradle.docker.tasks.container.DockerAwaitHealthy
+            import com.bmuschko.gradle.docker.tasks.container.DockerRemoveContainer
+
+            task pullImage(type: DockerPullImage) {
+                image = '$TEST_IMAGE:$TEST_IMAGE_TAG'
+            }
+
+            task createContainer(type: DockerCreateContainer) {
+                dependsOn pullImage
+                targetImageId pullImage.getImage()
+                cmd = ['sleep', '30']
+                healthCheck.cmd(${healthCommand})
+                healthCheck.interval = 1000000000L
+                healthCheck.retries = 1
+            }
+
+            task startContainer(type: DockerStartContainer) {
+                dependsOn createContainer
+                targetContainerId createContainer.getContainerId()
+            }
+
+            task removeContainer(type: DockerRemoveContainer) {
+                removeVolumes = true
+                force = true
+                targetContainerId startContainer.getContainerId()
+            }
+
+            task awaitHealthy(type: DockerAwaitHealthy) {
+                dependsOn startContainer
+                finalizedBy removeContainer
+                targetContainerId startContainer.getContainerId()
+                healthProbe(20000, 50, 1000, 2)
+            }
+        """
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container
+
+import com.bmuschko.gradle.docker.AbstractGroovyDslFunctionalTest
+import org.gradle.testkit.runner.BuildResult
+import org.gradle.testkit.runner.TaskOutcome
+
+class DockerContainerGroupFunctionalTest extends AbstractGroovyDslFunctionalTest {
+
+    def "Create, start and remove a group of containers"() {
+        given:
+        buildFile << groupUsage("""
+            containers {
+                database {
+                    imageId = pullImage.getImage()
+                    cmd = ['sleep', '30']
+                }
+                backend {
+                    imageId = pullImage.getImage()
+                    cmd = ['sleep', '30']
+                    startAfter.add('database')
+                }
+                frontend {
+                    imageId = pullImage.getImage()
+                    cmd = ['sleep', '30']
+                    startAfter.add('backend')
+                }
+            }
+        """)
+
+        when:
+        BuildResult result = build('startContainers')
+
+        then:
+        result.output.contains('Creating 3 containers.')
+        result.output.indexOf("Started container 'database'") < result.output.indexOf("Started container 'backend'")
+        result.output.indexOf("Started container 'backend'") < result.output.indexOf("Started container 'frontend'")
+        result.output.contains('FOUND CONTAINER-IDS: [backend, database, frontend]')
+        result.output.contains('Removing 3 containers.')
+    }
+
+    def "Fail if a container starts after an unknown container"() {
+        given:
+        buildFile << groupUsage("""
+            containers {
+                backend {
+                    imageId = pullImage.getImage()
+                    startAfter.add('database')
+                }
+            }
+        """)
+
+        when:
+        BuildResult result = buildAndFail('startContainers')
+
+        then:
+        result.task(':startContainers').outcome == TaskOutcome.FAILED
+        result.output.contains("Container 'backend' starts after unknown container 'database'.")
+    }
+
+    static String groupUsage(String containers) {
+        """
+            import com.bmuschko.gradle.docker.tasks.image.DockerPullImage
+            import com.bmuschko.gradle.docker.tasks.container.DockerContainerGroup
+            import com.bmuschko.gradle.docker.tasks.container.DockerRemoveContainerGroup
+
+            task pullImage(type: DockerPullImage) {
+                image = '$TEST_IMAGE:$TEST_IMAGE_TAG'
+            }
+
+            task startContainers(type: DockerContainerGroup) {
+                dependsOn pullImage
+                finalizedBy 'removeContainers'
+                ${containers}
+                doLast {
+                    println "FOUND CONTAINER-IDS: " + containerIds.get().keySet()
+                }
+            }
+
+            task removeContainers(type: DockerRemoveContainerGroup) {
+                containerIds.addAll(startContainers.containerIds.map { it.values() })
+                removeVolumes = true
+                force = true
+            }
+        """
+    }
+}
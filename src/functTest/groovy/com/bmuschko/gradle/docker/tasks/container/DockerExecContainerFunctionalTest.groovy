@@ -67,6 +67,61 @@ class DockerExecContainerFunctionalTest extends AbstractGroovyDslFunctionalTest
         result.output.contains('FOUND EXEC-IDS: 3')
     }
 
+    def "Execute multiple commands in parallel within running container"() {
+        given:
+        String containerExecutionTask = """
+            task execContainer(type: DockerExecContainer) {
+                dependsOn startContainer
+                finalizedBy removeContainer
+                targetContainerId startContainer.getContainerId()
+                commands.add(['sh', '-c', 'sleep 2 && echo Hello World One'] as String[])
+                commands.add(['sh', '-c', 'sleep 1 && echo Hello World Two'] as String[])
+                commands.add(['echo', 'Hello World Three'] as String[])
+                commandParallelism = 3
+                doLast {
+                    println "FOUND EXEC-IDS: " + execIds.size()
+                }
+            }
+        """
+        buildFile << containerUsage(containerExecutionTask, 120)
+
+        when:
+        BuildResult result = build('execContainer')
+
+        then:
+        result.output.contains('Hello World Three')
+        result.output.indexOf('Hello World One') < result.output.indexOf('Hello World Two')
+        result.output.indexOf('Hello World Two') < result.output.indexOf('Hello World Three')
+        result.output.contains('FOUND EXEC-IDS: 3')
+    }
+
+    def "Execute command and write output to files and memory"() {
+        given:
+        String containerExecutionTask = """
+            task execContainer(type: DockerExecContainer) {
+                dependsOn startContainer
+                finalizedBy removeContainer
+                targetContainerId startContainer.getContainerId()
+                commands.add(['sh', '-c', 'echo Hello World && echo Goodbye World >&2'] as String[])
+                stdOutFile = file('build/exec/stdout.log')
+                stdErrFile = file('build/exec/stderr.log')
+                captureOutput = true
+                doLast {
+                    println "CAPTURED: " + capturedStdOut.get().trim()
+                }
+            }
+        """
+        buildFile << containerUsage(containerExecutionTask)
+
+        when:
+        BuildResult result = build('execContainer')
+
+        then:
+        result.output.contains('CAPTURED: Hello World')
+        new File(projectDir, 'build/exec/stdout.log').text == 'Hello World\n'
+        new File(projectDir, 'build/exec/stderr.log').text == 'Goodbye World\n'
+    }
+
     def "Execute command within stopped container"() {
         given:
         String containerExecutionTask = """
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container
+
+import com.bmuschko.gradle.docker.AbstractGroovyDslFunctionalTest
+import groovy.json.JsonSlurper
+import org.gradle.testkit.runner.BuildResult
+import org.gradle.testkit.runner.TaskOutcome
+
+class DockerExecContainersFunctionalTest extends AbstractGroovyDslFunctionalTest {
+
+    def "Execute commands within multiple running containers"() {
+        given:
+        buildFile << containersUsage("""
+            task execContainers(type: DockerExecContainers) {
+                dependsOn startContainer1, startContainer2
+                finalizedBy removeContainer1, removeContainer2
+                containerIds.add(startContainer1.getContainerId())
+                containerIds.add(startContainer2.getContainerId())
+                commands.add(['echo', 'Hello World'] as String[])
+                commands.add(['hostname'] as String[])
+            }
+        """)
+
+        when:
+        BuildResult result = build('execContainers')
+
+        then:
+        result.output.count('Hello World') == 2
+        def report = new JsonSlurper().parse(new File(projectDir, 'build/.docker/execContainers-report.json'))
+        report.containers.size() == 2
+        report.containers.values().every { it.execIds.size() == 2 && it.exitCodes == [0, 0] && it.failure == null }
+    }
+
+    def "Fail after all containers have been processed if exitCode is not within allowed bounds"() {
+        given:
+        buildFile << containersUsage("""
+            task execContainers(type: DockerExecContainers) {
+                dependsOn startContainer1, startContainer2
+                finalizedBy removeContainer1, removeContainer2
+                containerIds.add(startContainer1.getContainerId())
+                containerIds.add(startContainer2.getContainerId())
+                commands.add(['test', '-e', '/not_existing_file'] as String[])
+                successOnExitCodes = [0]
+            }
+        """)
+
+        when:
+        BuildResult result = buildAndFail('execContainers')
+
+        then:
+        result.task(':execContainers').outcome == TaskOutcome.FAILED
+        result.output.contains('2 of 2 containers failed')
+    }
+
+    static String containersUsage(String containersExecutionTask) {
+        """
+            import com.bmuschko.gradle.docker.tasks.image.DockerPullImage
+            import com.bmuschko.gradle.docker.tasks.container.DockerCreateContainer
+            import com.bmuschko.gradle.docker.tasks.container.DockerStartContainer
+            import com.bmuschko.gradle.docker.tasks.container.DockerExecContainers
+            import com.bmuschko.gradle.docker.tasks.container.DockerRemoveContainer
+
+            task pullImage(type: DockerPullImage) {
+                image = '$TEST_IMAGE:$TEST_IMAGE_TAG'
+            }
+
+            [1, 2].each { index ->
+                def createContainer = tasks.register("createContainer\$index", DockerCreateContainer) {
+                    dependsOn pullImage
+                    targetImageId pullImage.getImage()
+                    cmd = ['sleep', '30']
+                }
+
+                def startContainer = tasks.register("startContainer\$index", DockerStartContainer) {
+                    dependsOn createContainer
+                    targetContainerId createContainer.flatMap { it.getContainerId() }
+                }
+
+                tasks.register("removeContainer\$index", DockerRemoveContainer) {
+                    removeVolumes = true
+                    force = true
+                    targetContainerId startContainer.flatMap { it.getContainerId() }
+                }
+            }
+
+            ${containersExecutionTask}
+        """
+    }
+}
@@ -0,0 +1,50 @@
+package com.bmuschko.gradle.docker.tasks.image
+
+import com.bmuschko.gradle.docker.AbstractGroovyDslFunctionalTest
+import org.gradle.testkit.runner.BuildResult
+import org.gradle.testkit.runner.TaskOutcome
+
+class DockerPullImagesFunctionalTest extends AbstractGroovyDslFunctionalTest {
+
+    def "can pull images and skips them once present"() {
+        buildFile << """
+            import com.bmuschko.gradle.docker.tasks.image.DockerPullImages
+
+            task pullImages(type: DockerPullImages) {
+                images.add('$TEST_IMAGE_WITH_TAG')
+            }
+        """
+
+        when:
+        BuildResult result = build('pullImages')
+
+        then:
+        result.task(':pullImages').outcome == TaskOutcome.SUCCESS
+
+        when:
+        result = build('pullImages')
+
+        then:
+        result.task(':pullImages').outcome == TaskOutcome.SUCCESS
+        result.output.contains("Skipping image '$TEST_IMAGE_WITH_TAG' as it is present locally already.")
+        result.output.contains('All images are present locally already.')
+        !result.output.contains('Pulling image')
+    }
+
+    def "fails on pull error"() {
+        buildFile << """
+            import com.bmuschko.gradle.docker.tasks.image.DockerPullImages
+
+            task pullImages(type: DockerPullImages) {
+                images.add('$TEST_IMAGE_WITH_TAG')
+                images.add('${createUniqueImageId()}:unknown')
+            }
+        """
+
+        when:
+        BuildResult result = buildAndFail('pullImages')
+
+        then:
+        result.output.contains('1 of 2 images failed to pull')
+    }
+}
@@ -1,8 +1,11 @@
 package com.bmuschko.gradle.docker.tasks.image
 
 import com.bmuschko.gradle.docker.AbstractGroovyDslFunctionalTest
+import com.bmuschko.gradle.docker.TestConfiguration
+import com.bmuschko.gradle.docker.TestPrecondition
 import org.gradle.testkit.runner.BuildResult
 import org.gradle.testkit.runner.TaskOutcome
+import spock.lang.Requires
 
 class DockerPushImageFunctionalTest extends AbstractGroovyDslFunctionalTest {
 
@@ -46,4 +49,98 @@ class DockerPushImageFunctionalTest extends AbstractGroovyDslFunctionalTest {
         result.task(':pushAndRemoveImage').outcome == TaskOutcome.FAILED
         result.output.contains("Could not push image")
     }
+
+    @Requires({ TestPrecondition.DOCKER_PRIVATE_REGISTRY_REACHABLE })
+    def "skips images present in the registry already"() {
+        def image = "${TestConfiguration.dockerPrivateRegistryDomain}/${createUniqueImageId()}:latest"
+
+        buildFile << """
+            import com.bmuschko.gradle.docker.tasks.image.Dockerfile
+            import com.bmuschko.gradle.docker.tasks.image.DockerBuildImage
+            import com.bmuschko.gradle.docker.tasks.image.DockerPushImage
+            import com.bmuschko.gradle.docker.tasks.image.DockerRemoveImage
+
+            task dockerfile(type: Dockerfile) {
+                from '$TEST_IMAGE_WITH_TAG'
+                label(['maintainer': '${UUID.randomUUID().toString()}'])
+            }
+
+            task buildImage(type: DockerBuildImage) {
+                dependsOn dockerfile
+                inputDir = file("build/docker")
+                images.add("${image}")
+            }
+
+            task pushImage(type: DockerPushImage) {
+                dependsOn buildImage
+                images.add("${image}")
+            }
+
+            task pushImageAgain(type: DockerPushImage) {
+                mustRunAfter pushImage
+                images.add("${image}")
+                skipExisting = true
+            }
+
+            task removeImage(type: DockerRemoveImage) {
+                mustRunAfter pushImageAgain
+                targetImageId "${image}"
+                force = true
+            }
+        """
+
+        when:
+        BuildResult result = build('pushImage', 'pushImageAgain', 'removeImage')
+
+        then:
+        result.task(':pushImageAgain').outcome == TaskOutcome.SUCCESS
+        result.output.contains("Skipping image '${image}' as it is present in the registry already.")
+        result.output.count("Pushing image '${image}'") == 1
+    }
+
+    @Requires({ TestPrecondition.DOCKER_PRIVATE_REGISTRY_REACHABLE })
+    def "pushes images present in the registry by default"() {
+        def image = "${TestConfiguration.dockerPrivateRegistryDomain}/${createUniqueImageId()}:latest"
+
+        buildFile << """
+            import com.bmuschko.gradle.docker.tasks.image.Dockerfile
+            import com.bmuschko.gradle.docker.tasks.image.DockerBuildImage
+            import com.bmuschko.gradle.docker.tasks.image.DockerPushImage
+            import com.bmuschko.gradle.docker.tasks.image.DockerRemoveImage
+
+            task dockerfile(type: Dockerfile) {
+                from '$TEST_IMAGE_WITH_TAG'
+                label(['maintainer': '${UUID.randomUUID().toString()}'])
+            }
+
+            task buildImage(type: DockerBuildImage) {
+                dependsOn dockerfile
+                inputDir = file("build/docker")
+                images.add("${image}")
+            }
+
+            task pushImage(type: DockerPushImage) {
+                dependsOn buildImage
+                images.add("${image}")
+            }
+
+            task pushImageAgain(type: DockerPushImage) {
+                mustRunAfter pushImage
+                images.add("${image}")
+            }
+
+            task removeImage(type: DockerRemoveImage) {
+                mustRunAfter pushImageAgain
+                targetImageId "${image}"
+                force = true
+            }
+        """
+
+        when:
+        BuildResult result = build('pushImage', 'pushImageAgain', 'removeImage')
+
+        then:
+        !result.output.contains('as it is present in the registry already')
+        result.output.count("Pushing image '${image}'") == 2
+    }
 }
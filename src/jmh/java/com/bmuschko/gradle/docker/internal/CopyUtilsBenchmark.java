@@ -0,0 +1,76 @@
+package com.bmuschko.gradle.docker.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures moving files extracted from a container to their host destination, as done when copying files from a container.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Thread)
+public class CopyUtilsBenchmark {
+
+    /**
+     * The number of files below the extracted top-level directory.
+     */
+    @Param({"10", "1000"})
+    public int fileCount;
+
+    private Path workDir;
+    private Path tempDestination;
+    private Path hostDestination;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("copy-utils");
+        tempDestination = workDir.resolve("extracted");
+        Path topLevelDir = tempDestination.resolve("app");
+        for (int i = 0; i < fileCount; i++) {
+            Path file = topLevelDir.resolve("dir" + (i % 10)).resolve("file" + i + ".txt");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, "content " + i);
+        }
+        hostDestination = workDir.resolve("host");
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(workDir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void copyMultipleFiles() throws IOException {
+        CopyUtils.copyMultipleFiles(hostDestination, tempDestination);
+    }
+}
@@ -0,0 +1,99 @@
+package com.bmuschko.gradle.docker.internal;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures scanning a compiled class tree for the main class, as done by the Java application plugin.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MainClassFinderBenchmark {
+
+    private static final int CLASSES_PER_PACKAGE = 50;
+
+    /**
+     * The total number of classes in the tree. Only the last class has a main method.
+     */
+    @Param({"500", "5000"})
+    public int classCount;
+
+    private Path rootFolder;
+
+    @Setup
+    public void setUp() throws IOException {
+        rootFolder = Files.createTempDirectory("main-class-finder");
+        for (int i = 0; i < classCount; i++) {
+            String className = "com/example/module" + (i / CLASSES_PER_PACKAGE) + "/Class" + i;
+            Path classFile = rootFolder.resolve(className + ".class");
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, createClass(className, i == classCount - 1));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(rootFolder)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public String findSingleMainClass() throws IOException {
+        File root = rootFolder.toFile();
+        return MainClassFinder.findSingleMainClass(root);
+    }
+
+    private static byte[] createClass(String className, boolean withMainMethod) {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V11, Opcodes.ACC_PUBLIC, className, null, "java/lang/Object", null);
+        for (int i = 0; i < 10; i++) {
+            MethodVisitor method = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, "()V", null, null);
+            method.visitCode();
+            method.visitInsn(Opcodes.RETURN);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+        if (withMainMethod) {
+            MethodVisitor main = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "main", "([Ljava/lang/String;)V", null, null);
+            main.visitCode();
+            main.visitInsn(Opcodes.RETURN);
+            main.visitMaxs(0, 0);
+            main.visitEnd();
+        }
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+}
@@ -0,0 +1,94 @@
+package com.bmuschko.gradle.docker.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures splitting streamed container output into lines, as done for every build response and log frame.
+ * <p>
+ * The baseline reproduces the former implementation based on a regular expression split and a synchronized buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutputCollectorBenchmark {
+
+    /**
+     * The number of characters per frame. Docker splits output into frames independent of line boundaries.
+     */
+    @Param({"16", "512", "8192"})
+    public int frameSize;
+
+    private List<String> frames;
+    private List<byte[]> byteFrames;
+
+    @Setup
+    public void setUp() {
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; output.length() < 4 * 1024 * 1024; i++) {
+            output.append("2024-01-01T00:00:00.000Z INFO  [main] c.e.Application - Processed request ").append(i).append('\n');
+        }
+
+        frames = new ArrayList<>();
+        byteFrames = new ArrayList<>();
+        for (int start = 0; start < output.length(); start += frameSize) {
+            String frame = output.substring(start, Math.min(output.length(), start + frameSize));
+            frames.add(frame);
+            byteFrames.add(frame.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void accept(Blackhole blackhole) throws IOException {
+        try (OutputCollector collector = new OutputCollector(blackhole::consume)) {
+            for (String frame : frames) {
+                collector.accept(frame);
+            }
+        }
+    }
+
+    @Benchmark
+    public void acceptBytes(Blackhole blackhole) throws IOException {
+        try (OutputCollector collector = new OutputCollector(blackhole::consume)) {
+            for (byte[] frame : byteFrames) {
+                collector.accept(frame);
+            }
+        }
+    }
+
+    @Benchmark
+    public void regexSplitBaseline(Blackhole blackhole) {
+        StringBuffer buffer = new StringBuffer();
+        for (String frame : frames) {
+            String[] parts = frame.split("\\R", -1);
+            buffer.append(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                blackhole.consume(buffer.toString());
+                buffer.delete(0, buffer.length());
+                buffer.append(parts[i]);
+            }
+        }
+        if (buffer.length() > 0) {
+            blackhole.consume(buffer.toString());
+        }
+    }
+}
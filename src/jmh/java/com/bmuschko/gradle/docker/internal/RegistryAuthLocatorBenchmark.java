@@ -0,0 +1,94 @@
+package com.bmuschko.gradle.docker.internal;
+
+import com.github.dockerjava.api.model.AuthConfig;
+import com.github.dockerjava.api.model.AuthConfigurations;
+import org.gradle.process.ExecOperations;
+import org.gradle.process.ExecResult;
+import org.gradle.process.ExecSpec;
+import org.gradle.process.JavaExecSpec;
+import org.gradle.api.Action;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing the Docker config file for registry credentials, as done by every task talking to a registry.
+ * Credential helpers are not configured, so no external process is started.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistryAuthLocatorBenchmark {
+
+    /**
+     * The number of registries with credentials in the config file.
+     */
+    @Param({"1", "100"})
+    public int registryCount;
+
+    private File configFile;
+    private RegistryAuthLocator locator;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder config = new StringBuilder("{\"auths\":{");
+        for (int i = 0; i < registryCount; i++) {
+            if (i > 0) {
+                config.append(',');
+            }
+            String auth = Base64.getEncoder().encodeToString(("user" + i + ":secret" + i).getBytes(StandardCharsets.UTF_8));
+            config.append("\"registry").append(i).append(".example.com\":{\"auth\":\"").append(auth).append("\"}");
+        }
+        config.append("}}");
+
+        configFile = File.createTempFile("docker-config", ".json");
+        Files.writeString(configFile.toPath(), config.toString());
+        locator = new RegistryAuthLocator.Factory(new UnsupportedExecOperations()).withConfig(configFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(configFile.toPath());
+    }
+
+    @Benchmark
+    public AuthConfig lookupAuthConfig() {
+        return locator.lookupAuthConfigWithDefaultAuthConfig("registry" + (registryCount - 1) + ".example.com/team/app:1.0");
+    }
+
+    @Benchmark
+    public AuthConfigurations lookupAllAuthConfigs() {
+        return locator.lookupAllAuthConfigs();
+    }
+
+    private static final class UnsupportedExecOperations implements ExecOperations {
+        @Override
+        public ExecResult exec(Action<? super ExecSpec> action) {
+            throw new UnsupportedOperationException("Credential helpers are not benchmarked");
+        }
+
+        @Override
+        public ExecResult javaexec(Action<? super JavaExecSpec> action) {
+            throw new UnsupportedOperationException("Credential helpers are not benchmarked");
+        }
+    }
+}
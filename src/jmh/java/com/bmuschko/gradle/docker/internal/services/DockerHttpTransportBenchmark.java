@@ -0,0 +1,118 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import com.bmuschko.gradle.docker.DockerHttpTransport;
+import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import com.github.dockerjava.transport.DockerHttpClient;
+import com.github.dockerjava.zerodep.ZerodepDockerHttpClient;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the HTTP transports when streaming large response bodies, e.g. saved images, and when sending many small requests.
+ * <p>
+ * A local HTTP server stands in for the Docker daemon so that only the transport overhead is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DockerHttpTransportBenchmark {
+
+    private static final int LARGE_BODY_SIZE = 64 * 1024 * 1024;
+
+    @Param({"APACHE_HTTP_CLIENT5", "ZERODEP"})
+    public DockerHttpTransport transport;
+
+    private HttpServer server;
+    private DockerHttpClient client;
+    private final byte[] readBuffer = new byte[64 * 1024];
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] chunk = new byte[64 * 1024];
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/_ping", exchange -> {
+            byte[] body = "OK".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/images/get", exchange -> {
+            exchange.sendResponseHeaders(200, LARGE_BODY_SIZE);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int written = 0; written < LARGE_BODY_SIZE; written += chunk.length) {
+                    out.write(chunk);
+                }
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        URI dockerHost = URI.create("tcp://127.0.0.1:" + server.getAddress().getPort());
+        switch (transport) {
+            case APACHE_HTTP_CLIENT5:
+                client = new ApacheDockerHttpClient.Builder().dockerHost(dockerHost).build();
+                break;
+            case ZERODEP:
+                client = new ZerodepDockerHttpClient.Builder().dockerHost(dockerHost).build();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported Docker HTTP transport " + transport);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int ping() throws IOException {
+        return drain("/_ping");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int streamLargeBody() throws IOException {
+        return drain("/images/get");
+    }
+
+    private int drain(String path) throws IOException {
+        DockerHttpClient.Request request = DockerHttpClient.Request.builder()
+                .method(DockerHttpClient.Request.Method.GET)
+                .path(path)
+                .build();
+        int total = 0;
+        try (DockerHttpClient.Response response = client.execute(request); InputStream body = response.getBody()) {
+            int read;
+            while ((read = body.read(readBuffer)) != -1) {
+                total += read;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,71 @@
+package com.bmuschko.gradle.docker.tasks.image;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures validating and writing a Dockerfile with a large number of instructions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+// ProjectBuilder needs the same access to java.lang as Gradle's test workers
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.lang=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class DockerfileBenchmark {
+
+    /**
+     * The number of instructions following the {@code FROM} instruction.
+     */
+    @Param({"10", "1000", "10000"})
+    public int instructionCount;
+
+    private Dockerfile dockerfile;
+
+    @Setup
+    public void setUp() throws IOException {
+        Project project = ProjectBuilder.builder().withProjectDir(Files.createTempDirectory("dockerfile").toFile()).build();
+        dockerfile = project.getTasks().register("dockerfile", Dockerfile.class).get();
+        dockerfile.from("eclipse-temurin:21-jre");
+        for (int i = 0; i < instructionCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    dockerfile.runCommand("echo step " + i + " && touch /tmp/step" + i);
+                    break;
+                case 1:
+                    dockerfile.environmentVariable("VARIABLE_" + i, "value " + i);
+                    break;
+                case 2:
+                    dockerfile.label(Map.of("label" + i, "value" + i));
+                    break;
+                default:
+                    dockerfile.copyFile("libs/lib" + i + ".jar", "/app/libs/");
+                    break;
+            }
+        }
+        dockerfile.entryPoint("java", "-jar", "/app/app.jar");
+        dockerfile.getDestFile().get().getAsFile().getParentFile().mkdirs();
+    }
+
+    @Benchmark
+    public void create() throws IOException {
+        dockerfile.create();
+    }
+}
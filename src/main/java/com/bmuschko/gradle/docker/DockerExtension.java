@@ -1,5 +1,6 @@
 package com.bmuschko.gradle.docker;
 
+import com.bmuschko.gradle.docker.domain.RetryPolicy;
 import com.bmuschko.gradle.docker.internal.DefaultDockerConfigResolver;
 import com.bmuschko.gradle.docker.internal.DefaultDockerUrlValueSource;
 import com.bmuschko.gradle.docker.internal.DockerConfigResolver;
@@ -7,11 +8,13 @@ import org.gradle.api.Action;
 import org.gradle.api.XmlProvider;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.ProviderFactory;
 import org.gradle.api.provider.ValueSourceParameters;
 
 import java.io.File;
+import java.time.Duration;
 
 /**
  * The extension for configuring the Docker communication via the remote API through the {@link DockerRemoteApiPlugin}.
@@ -38,6 +41,49 @@ public class DockerExtension {
 
     private final Property<String> url;
 
+    /**
+     * The server URLs of a pool of Docker hosts that operations are distributed across.
+     * Tasks without an explicitly configured URL use a host of the pool instead of {@link #getUrl()}.
+     * <p>
+     * Operations on an image, container or network always go to the host it was created on or first used with during the build.
+     * Resources are not shared between hosts, e.g. an image built on one host has to be pushed from the same host.
+     * <p>
+     * Defaults to an empty list, which disables the pool.
+     *
+     * @since 10.1.0
+     */
+    public final ListProperty<String> getUrls() {
+        return urls;
+    }
+
+    private final ListProperty<String> urls;
+
+    /**
+     * The strategy for selecting a host of the pool for an image, container or network that has not been used before.
+     * <p>
+     * Defaults to {@link DockerHostSelectionStrategy#ROUND_ROBIN}.
+     *
+     * @since 10.1.0
+     */
+    public final Property<DockerHostSelectionStrategy> getHostSelectionStrategy() {
+        return hostSelectionStrategy;
+    }
+
+    private final Property<DockerHostSelectionStrategy> hostSelectionStrategy;
+
+    /**
+     * The interval in which the hosts of the pool are pinged. Unavailable hosts are not selected until they respond again.
+     * <p>
+     * Defaults to 30 seconds.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Duration> getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    private final Property<Duration> healthCheckInterval;
+
     /**
      * The path to certificates for communicating with Docker over SSL.
      * <p>
@@ -58,6 +104,197 @@ public class DockerExtension {
 
     private final Property<String> apiVersion;
 
+    /**
+     * The HTTP transport used for communicating with the Docker daemon.
+     * <p>
+     * Defaults to {@link DockerHttpTransport#APACHE_HTTP_CLIENT5}.
+     *
+     * @since 10.1.0
+     */
+    public final Property<DockerHttpTransport> getTransport() {
+        return transport;
+    }
+
+    private final Property<DockerHttpTransport> transport;
+
+    /**
+     * Whether to connect to the Docker daemon in the background as soon as the build starts executing tasks.
+     * The connection is established and the daemon version is requested off the critical path of the first Docker task.
+     * <p>
+     * Defaults to false.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Boolean> getWarmUp() {
+        return warmUp;
+    }
+
+    private final Property<Boolean> warmUp;
+
+    /**
+     * The maximum number of pooled HTTP connections shared by all tasks talking to the same Docker host.
+     * <p>
+     * Defaults to the value of the underlying Docker client library if not set.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Integer> getMaxConnections() {
+        return maxConnections;
+    }
+
+    private final Property<Integer> maxConnections;
+
+    /**
+     * The timeout for establishing a connection to the Docker host.
+     * <p>
+     * Defaults to the value of the underlying Docker client library if not set.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Duration> getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    private final Property<Duration> connectionTimeout;
+
+    /**
+     * The timeout for waiting on a response from the Docker host.
+     * <p>
+     * Defaults to the value of the underlying Docker client library if not set.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Duration> getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    private final Property<Duration> responseTimeout;
+
+    /**
+     * The time after which pooled connections to a Docker host are released if no task used them.
+     * Connections are re-established on the next request.
+     * <p>
+     * Defaults to null, which keeps connections open until the end of the build.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Duration> getIdleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    private final Property<Duration> idleConnectionTimeout;
+
+    /**
+     * Whether to keep HTTP connections to the Docker daemon alive across builds running in the same Gradle daemon.
+     * Back-to-back builds then reuse established connections instead of reconnecting for every build.
+     * <p>
+     * Shared connections which have been idle for the {@link #getIdleConnectionTimeout() idle connection timeout},
+     * or 5 minutes if it is not set, are released by the next build.
+     * <p>
+     * Defaults to false.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Boolean> getReuseClientsAcrossBuilds() {
+        return reuseClientsAcrossBuilds;
+    }
+
+    private final Property<Boolean> reuseClientsAcrossBuilds;
+
+    /**
+     * The maximum number of image builds and commits running against the Docker daemon at the same time.
+     * Additional tasks wait until a running operation has finished.
+     * <p>
+     * Defaults to null, which does not limit the number of parallel builds.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Integer> getMaxParallelBuilds() {
+        return maxParallelBuilds;
+    }
+
+    private final Property<Integer> maxParallelBuilds;
+
+    /**
+     * The maximum number of image pushes, pulls, saves and loads running against the Docker daemon at the same time.
+     * Additional tasks wait until a running operation has finished.
+     * <p>
+     * Defaults to null, which does not limit the number of parallel transfers.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Integer> getMaxParallelTransfers() {
+        return maxParallelTransfers;
+    }
+
+    private final Property<Integer> maxParallelTransfers;
+
+    /**
+     * The maximum number of all other operations, e.g. container lifecycle or inspect calls, running against the Docker daemon at the same time.
+     * Additional tasks wait until a running operation has finished.
+     * <p>
+     * Defaults to null, which does not limit the number of parallel operations.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Integer> getMaxParallelOperations() {
+        return maxParallelOperations;
+    }
+
+    private final Property<Integer> maxParallelOperations;
+
+    /**
+     * The number of consecutive transient failures, e.g. connection resets or 503 responses, after which all further
+     * operations fail fast instead of waiting for the daemon to time out.
+     * <p>
+     * Defaults to null, which disables the circuit breaker.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Integer> getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    private final Property<Integer> circuitBreakerFailureThreshold;
+
+    /**
+     * The time after which a single trial operation is let through again once the circuit breaker opened.
+     * <p>
+     * Defaults to 30 seconds.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Duration> getCircuitBreakerResetTimeout() {
+        return circuitBreakerResetTimeout;
+    }
+
+    private final Property<Duration> circuitBreakerResetTimeout;
+
+    /**
+     * The default retry policy for all tasks interacting with the Docker remote API.
+     *
+     * @since 10.1.0
+     */
+    public final RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Whether to record latency, transferred bytes and errors for every request sent to the Docker remote API.
+     * If enabled, a summary is logged at the end of the build and a JSON report is written to {@code build/reports/docker} of the root project.
+     * <p>
+     * Defaults to false.
+     *
+     * @since 10.1.0
+     */
+    public final Property<Boolean> getMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    private final Property<Boolean> metricsEnabled;
+
     /**
      * The target Docker registry credentials.
      */
@@ -72,6 +309,11 @@ public class DockerExtension {
 
         url = objectFactory.property(String.class);
         url.convention(providerFactory.of(DefaultDockerUrlValueSource.class, noneValueSourceSpec -> {}));
+        urls = objectFactory.listProperty(String.class);
+        hostSelectionStrategy = objectFactory.property(DockerHostSelectionStrategy.class);
+        hostSelectionStrategy.convention(DockerHostSelectionStrategy.ROUND_ROBIN);
+        healthCheckInterval = objectFactory.property(Duration.class);
+        healthCheckInterval.convention(Duration.ofSeconds(30));
         certPath = objectFactory.directoryProperty();
 
         File defaultDockerCert = dockerConfigResolver.getDefaultDockerCert();
@@ -81,6 +323,25 @@ public class DockerExtension {
         }
 
         apiVersion = objectFactory.property(String.class);
+        transport = objectFactory.property(DockerHttpTransport.class);
+        transport.convention(DockerHttpTransport.APACHE_HTTP_CLIENT5);
+        warmUp = objectFactory.property(Boolean.class);
+        warmUp.convention(false);
+        maxConnections = objectFactory.property(Integer.class);
+        connectionTimeout = objectFactory.property(Duration.class);
+        responseTimeout = objectFactory.property(Duration.class);
+        idleConnectionTimeout = objectFactory.property(Duration.class);
+        reuseClientsAcrossBuilds = objectFactory.property(Boolean.class);
+        reuseClientsAcrossBuilds.convention(false);
+        maxParallelBuilds = objectFactory.property(Integer.class);
+        maxParallelTransfers = objectFactory.property(Integer.class);
+        maxParallelOperations = objectFactory.property(Integer.class);
+        circuitBreakerFailureThreshold = objectFactory.property(Integer.class);
+        circuitBreakerResetTimeout = objectFactory.property(Duration.class);
+        circuitBreakerResetTimeout.convention(Duration.ofSeconds(30));
+        retryPolicy = objectFactory.newInstance(RetryPolicy.class, objectFactory);
+        metricsEnabled = objectFactory.property(Boolean.class);
+        metricsEnabled.convention(false);
         registryCredentials = objectFactory.newInstance(DockerRegistryCredentials.class, objectFactory);
     }
 
@@ -93,4 +354,14 @@ public class DockerExtension {
     public void registryCredentials(Action<? super DockerRegistryCredentials> action) {
         action.execute(registryCredentials);
     }
+
+    /**
+     * Configures the default retry policy for all tasks interacting with the Docker remote API.
+     *
+     * @param action The action against the retry policy
+     * @since 10.1.0
+     */
+    public void retryPolicy(Action<? super RetryPolicy> action) {
+        action.execute(retryPolicy);
+    }
 }
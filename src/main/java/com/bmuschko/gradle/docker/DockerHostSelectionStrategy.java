@@ -0,0 +1,26 @@
+package com.bmuschko.gradle.docker;
+
+/**
+ * The strategies for distributing operations across a pool of Docker hosts.
+ * <p>
+ * Independent of the strategy, operations on an image, container or network always go to the host it was created on
+ * or first used with during the build.
+ *
+ * @since 10.1.0
+ */
+public enum DockerHostSelectionStrategy {
+    /**
+     * Uses the healthy hosts in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Uses the healthy host with the fewest operations in flight.
+     */
+    LEAST_IN_FLIGHT,
+
+    /**
+     * Always uses the same host for the same image name or ID, so that layer caches of previous builds are reused.
+     */
+    STICKY
+}
@@ -0,0 +1,18 @@
+package com.bmuschko.gradle.docker;
+
+/**
+ * The HTTP transport implementations available for communicating with the Docker daemon.
+ *
+ * @since 10.1.0
+ */
+public enum DockerHttpTransport {
+    /**
+     * Transport based on Apache HttpClient 5.
+     */
+    APACHE_HTTP_CLIENT5,
+
+    /**
+     * Transport based on a relocated copy of Apache HttpClient 5 without any further dependencies.
+     */
+    ZERODEP
+}
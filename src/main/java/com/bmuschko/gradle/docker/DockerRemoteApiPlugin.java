@@ -1,13 +1,18 @@
 package com.bmuschko.gradle.docker;
 
 import com.bmuschko.gradle.docker.internal.services.DockerClientService;
+import com.bmuschko.gradle.docker.internal.services.DockerEventsService;
 import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
 import com.bmuschko.gradle.docker.tasks.RegistryCredentialsAware;
 import org.gradle.api.Action;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildServiceParameters;
 import org.gradle.api.services.BuildServiceSpec;
+import org.gradle.build.event.BuildEventsListenerRegistry;
+
+import javax.inject.Inject;
 
 /**
  * Gradle plugin that provides custom tasks for interacting with Docker via its remote API.
@@ -25,26 +30,67 @@ public class DockerRemoteApiPlugin implements Plugin<Project> {
      */
     public static final String DEFAULT_TASK_GROUP = "Docker";
 
+    private final BuildEventsListenerRegistry buildEventsListenerRegistry;
+
+    @Inject
+    public DockerRemoteApiPlugin(BuildEventsListenerRegistry buildEventsListenerRegistry) {
+        this.buildEventsListenerRegistry = buildEventsListenerRegistry;
+    }
+
     @Override
     public void apply(Project project) {
         final DockerExtension dockerExtension = project.getExtensions().create(EXTENSION_NAME, DockerExtension.class, project.getObjects(), project.getProviders());
         configureRegistryCredentialsAwareTasks(project, dockerExtension.getRegistryCredentials());
 
+        final boolean serviceRegistered = project.getGradle().getSharedServices().getRegistrations().findByName("docker") != null;
+
         final Provider<DockerClientService> serviceProvider = project.getGradle().getSharedServices().registerIfAbsent("docker", DockerClientService.class, new Action<BuildServiceSpec<DockerClientService.Params>>() {
             @Override
             public void execute(BuildServiceSpec<DockerClientService.Params> pBuildServiceSpec) {
                 pBuildServiceSpec.parameters(parameters -> {
                     parameters.getUrl().set(dockerExtension.getUrl());
+                    parameters.getUrls().set(dockerExtension.getUrls());
+                    parameters.getHostSelectionStrategy().set(dockerExtension.getHostSelectionStrategy());
+                    parameters.getHealthCheckInterval().set(dockerExtension.getHealthCheckInterval());
                     parameters.getCertPath().set(dockerExtension.getCertPath());
                     parameters.getApiVersion().set(dockerExtension.getApiVersion());
+                    parameters.getTransport().set(dockerExtension.getTransport());
+                    parameters.getWarmUp().set(dockerExtension.getWarmUp());
+                    parameters.getMaxConnections().set(dockerExtension.getMaxConnections());
+                    parameters.getConnectionTimeout().set(dockerExtension.getConnectionTimeout());
+                    parameters.getResponseTimeout().set(dockerExtension.getResponseTimeout());
+                    parameters.getIdleConnectionTimeout().set(dockerExtension.getIdleConnectionTimeout());
+                    parameters.getReuseClientsAcrossBuilds().set(dockerExtension.getReuseClientsAcrossBuilds());
+                    parameters.getMaxParallelBuilds().set(dockerExtension.getMaxParallelBuilds());
+                    parameters.getMaxParallelTransfers().set(dockerExtension.getMaxParallelTransfers());
+                    parameters.getMaxParallelOperations().set(dockerExtension.getMaxParallelOperations());
+                    parameters.getCircuitBreakerFailureThreshold().set(dockerExtension.getCircuitBreakerFailureThreshold());
+                    parameters.getCircuitBreakerResetTimeout().set(dockerExtension.getCircuitBreakerResetTimeout());
+                    parameters.getMetricsEnabled().set(dockerExtension.getMetricsEnabled());
+                    parameters.getMetricsReportDirectory().set(project.getRootProject().getLayout().getBuildDirectory().dir("reports/docker"));
                 });
             }
         });
 
+        if (!serviceRegistered) {
+            buildEventsListenerRegistry.onTaskCompletion(serviceProvider);
+        }
+
+        final Provider<DockerEventsService> eventsServiceProvider = project.getGradle().getSharedServices().registerIfAbsent("dockerEvents", DockerEventsService.class, new Action<BuildServiceSpec<BuildServiceParameters.None>>() {
+            @Override
+            public void execute(BuildServiceSpec<BuildServiceParameters.None> pBuildServiceSpec) {
+            }
+        });
+
         project.getTasks().withType(AbstractDockerRemoteApiTask.class).configureEach(new Action<AbstractDockerRemoteApiTask>() {
             @Override
             public void execute(AbstractDockerRemoteApiTask task) {
                 task.getDockerClientService().set(serviceProvider);
+                task.getDockerEventsService().set(eventsServiceProvider);
+                task.getRetryPolicy().getMaxAttempts().convention(dockerExtension.getRetryPolicy().getMaxAttempts());
+                task.getRetryPolicy().getInitialBackoff().convention(dockerExtension.getRetryPolicy().getInitialBackoff());
+                task.getRetryPolicy().getMaxBackoff().convention(dockerExtension.getRetryPolicy().getMaxBackoff());
+                task.getRetryPolicy().getJitter().convention(dockerExtension.getRetryPolicy().getJitter());
             }
         });
     }
@@ -21,6 +21,10 @@ import org.gradle.api.tasks.Input;
 
 /**
  * Class holding metadata for an arbitrary exec livenessProbe.
+ * <p>
+ * The probe polls in increasing intervals, starting with the initial poll interval and multiplying it by the backoff
+ * multiplier after each poll up to the poll interval. Short execs are therefore detected quickly, while long ones cause
+ * few polls. By default the interval is fixed.
  */
 public class ExecProbe {
 
@@ -39,7 +43,7 @@ public class ExecProbe {
     }
 
     /**
-     * Indicates how long we wait until next poll.
+     * Indicates how long we wait until next poll at most.
      */
     @Input
     private long pollInterval;
@@ -52,17 +56,93 @@ public class ExecProbe {
         this.pollInterval = pollInterval;
     }
 
+    /**
+     * Indicates how long we wait until the first poll.
+     *
+     * @since 10.1.0
+     */
+    @Input
+    private long initialPollInterval;
+
+    public long getInitialPollInterval() {
+        return initialPollInterval;
+    }
+
+    public void setInitialPollInterval(long initialPollInterval) {
+        this.initialPollInterval = initialPollInterval;
+    }
+
+    /**
+     * Indicates by which factor the wait increases after each poll.
+     *
+     * @since 10.1.0
+     */
+    @Input
+    private double backoffMultiplier;
+
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public void setBackoffMultiplier(double backoffMultiplier) {
+        this.backoffMultiplier = backoffMultiplier;
+    }
+
     public ExecProbe(final long pollTime, final long pollInterval) {
-        if (pollInterval > pollTime) {
-            throw new GradleException("pollInterval must be greater than pollTime: pollInterval=" + pollInterval + ", pollTime=" + pollTime);
+        validatePollInterval(pollTime, pollInterval);
+
+        this.pollTime = pollTime;
+        this.pollInterval = pollInterval;
+        this.initialPollInterval = pollInterval;
+        this.backoffMultiplier = 1;
+    }
+
+    /**
+     * Creates a probe polling in exponentially increasing intervals.
+     *
+     * @param pollTime how long we will poll for
+     * @param initialPollInterval interval until the first poll request
+     * @param pollInterval maximum interval between poll requests
+     * @param backoffMultiplier factor the interval increases by after each poll request
+     * @since 10.1.0
+     */
+    public ExecProbe(final long pollTime, final long initialPollInterval, final long pollInterval, final double backoffMultiplier) {
+        validatePollInterval(pollTime, pollInterval);
+        if (initialPollInterval <= 0 || initialPollInterval > pollInterval) {
+            throw new GradleException("initialPollInterval must be positive and not greater than pollInterval: initialPollInterval=" + initialPollInterval + ", pollInterval=" + pollInterval);
+        }
+        if (backoffMultiplier < 1) {
+            throw new GradleException("backoffMultiplier must be at least 1: backoffMultiplier=" + backoffMultiplier);
         }
 
         this.pollTime = pollTime;
         this.pollInterval = pollInterval;
+        this.initialPollInterval = initialPollInterval;
+        this.backoffMultiplier = backoffMultiplier;
+    }
+
+    private static void validatePollInterval(long pollTime, long pollInterval) {
+        if (pollInterval > pollTime) {
+            throw new GradleException("pollInterval must be greater than pollTime: pollInterval=" + pollInterval + ", pollTime=" + pollTime);
+        }
+    }
+
+    /**
+     * Returns the interval to wait after a poll.
+     *
+     * @param previousPollInterval the interval waited before the poll
+     * @return the next interval, which never exceeds the poll interval
+     * @since 10.1.0
+     */
+    public long nextPollInterval(long previousPollInterval) {
+        if (backoffMultiplier <= 1) {
+            return Math.min(pollInterval, previousPollInterval);
+        }
+        return Math.min(pollInterval, Math.max(previousPollInterval + 1, Math.round(previousPollInterval * backoffMultiplier)));
     }
 
     @Override
     public String toString() {
-        return "pollTime=" + getPollTime() + ", pollInterval=" + getPollInterval();
+        return "pollTime=" + getPollTime() + ", pollInterval=" + getPollInterval() + ", initialPollInterval=" + getInitialPollInterval() + ", backoffMultiplier=" + getBackoffMultiplier();
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.bmuschko.gradle.docker.domain;
+
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+
+import javax.inject.Inject;
+import java.time.Duration;
+
+/**
+ * Policy for retrying an operation against the Docker remote API after a transient error, e.g. a connection reset or
+ * a 500/503 response from the daemon.
+ * <p>
+ * Only operations that can safely be repeated are retried. The delay between attempts grows exponentially, starting
+ * with {@link #getInitialBackoff()} and capped by {@link #getMaxBackoff()}.
+ * <p>
+ * The following example demonstrates the use of the policy in a build script using the Groovy DSL:
+ * <pre>
+ * tasks.withType(DockerPullImage).configureEach {
+ *     retryPolicy {
+ *         maxAttempts = 3
+ *         initialBackoff = Duration.ofSeconds(2)
+ *     }
+ * }
+ * </pre>
+ *
+ * @since 10.1.0
+ */
+public class RetryPolicy {
+
+    /**
+     * The maximum number of attempts including the first one.
+     * <p>
+     * Defaults to 1, which disables retries.
+     */
+    public final Property<Integer> getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    private final Property<Integer> maxAttempts;
+
+    /**
+     * The delay before the first retry.
+     * <p>
+     * Defaults to 1 second.
+     */
+    public final Property<Duration> getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    private final Property<Duration> initialBackoff;
+
+    /**
+     * The upper bound for the delay between two attempts.
+     * <p>
+     * Defaults to 30 seconds.
+     */
+    public final Property<Duration> getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    private final Property<Duration> maxBackoff;
+
+    /**
+     * The fraction by which each delay is randomly shortened, between 0 (no jitter) and 1.
+     * Spreads retries of parallel tasks so they do not hit the daemon at the same time.
+     * <p>
+     * Defaults to 0.5.
+     */
+    public final Property<Double> getJitter() {
+        return jitter;
+    }
+
+    private final Property<Double> jitter;
+
+    @Inject
+    public RetryPolicy(ObjectFactory objectFactory) {
+        maxAttempts = objectFactory.property(Integer.class);
+        maxAttempts.convention(1);
+        initialBackoff = objectFactory.property(Duration.class);
+        initialBackoff.convention(Duration.ofSeconds(1));
+        maxBackoff = objectFactory.property(Duration.class);
+        maxBackoff.convention(Duration.ofSeconds(30));
+        jitter = objectFactory.property(Double.class);
+        jitter.convention(0.5);
+    }
+
+    @Override
+    public String toString() {
+        return "maxAttempts=" + maxAttempts.getOrNull() + ", initialBackoff=" + initialBackoff.getOrNull() + ", maxBackoff=" + maxBackoff.getOrNull() + ", jitter=" + jitter.getOrNull();
+    }
+}
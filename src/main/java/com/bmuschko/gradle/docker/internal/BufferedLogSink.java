@@ -0,0 +1,193 @@
+package com.bmuschko.gradle.docker.internal;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes log output to a file through a single buffered stream that stays open for the whole log stream.
+ * <p>
+ * Buffered output is written to disk once the buffer is full and in the given flush interval, so that the file can be
+ * followed while the stream is still open. The file can optionally be compressed with gzip and rotated once it
+ * exceeds a maximum size. Rotated files are named after the sink file with an increasing index, e.g. {@code app.1.log}.
+ * Output is appended to an existing file; appended gzip members are read as one stream by common tools.
+ */
+public final class BufferedLogSink implements AutoCloseable {
+
+    private static final Logger logger = Logging.getLogger(BufferedLogSink.class);
+
+    private final File file;
+    private final int bufferSize;
+    private final boolean compressed;
+    private final long maxSize;
+
+    private OutputStream out;
+    private CountingOutputStream fileOut;
+    @Nullable
+    private ScheduledExecutorService flushExecutor;
+    private int rotatedFiles;
+    private boolean closed;
+
+    /**
+     * Creates a new sink. The file is not created before the first write.
+     *
+     * @param file The file to write to
+     * @param bufferSize The number of bytes buffered before they are written to the file
+     * @param flushInterval The interval in which buffered bytes are written to the file or null to only write full buffers
+     * @param compressed Whether to compress the output with gzip
+     * @param maxSize The size in bytes after which the file is rotated or 0 to never rotate
+     */
+    public BufferedLogSink(File file, int bufferSize, @Nullable Duration flushInterval, boolean compressed, long maxSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Log sink buffer size must be at least 1 but was " + bufferSize);
+        }
+        this.file = file;
+        this.bufferSize = bufferSize;
+        this.compressed = compressed;
+        this.maxSize = maxSize;
+
+        if (flushInterval != null && !flushInterval.isZero() && !flushInterval.isNegative()) {
+            long period = flushInterval.toMillis();
+            // owned by the sink so that no thread outlives the log stream in long-lived Gradle daemons
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "docker-log-sink-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flushExecutor.scheduleWithFixedDelay(this::flushQuietly, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void write(byte[] bytes) throws IOException {
+        write(bytes, 0, bytes.length);
+    }
+
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Log sink " + file + " is closed");
+        }
+        if (out == null) {
+            open();
+        }
+        out.write(bytes, offset, length);
+        if (maxSize > 0 && fileOut.getCount() >= maxSize) {
+            rotate();
+        }
+    }
+
+    /**
+     * Writes all buffered bytes to the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void open() throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        fileOut = new CountingOutputStream(new FileOutputStream(file, true), file.length());
+        if (compressed) {
+            out = new GZIPOutputStream(new BufferedOutputStream(fileOut, bufferSize), bufferSize, true);
+        } else {
+            out = new BufferedOutputStream(fileOut, bufferSize);
+        }
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        out = null;
+        File rotated;
+        do {
+            rotatedFiles++;
+            rotated = rotatedFile(rotatedFiles);
+        } while (rotated.exists());
+        if (!file.renameTo(rotated)) {
+            throw new IOException("Failed to rotate log sink " + file + " to " + rotated);
+        }
+    }
+
+    private File rotatedFile(int index) {
+        String name = file.getName();
+        String suffix = compressed && name.endsWith(".gz") ? ".gz" : "";
+        String baseName = name.substring(0, name.length() - suffix.length());
+        int extensionIndex = baseName.lastIndexOf('.');
+        String rotatedName = extensionIndex > 0
+                ? baseName.substring(0, extensionIndex) + "." + index + baseName.substring(extensionIndex) + suffix
+                : baseName + "." + index + suffix;
+        return new File(file.getParentFile(), rotatedName);
+    }
+
+    private void flushQuietly() {
+        try {
+            synchronized (this) {
+                if (!closed) {
+                    flush();
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to flush log sink " + file, e);
+        }
+    }
+
+    boolean isFlushScheduled() {
+        return flushExecutor != null && !flushExecutor.isShutdown();
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out, long initialCount) {
+            super(out);
+            this.count = initialCount;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
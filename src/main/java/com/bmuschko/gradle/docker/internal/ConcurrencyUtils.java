@@ -0,0 +1,73 @@
+package com.bmuschko.gradle.docker.internal;
+
+import org.gradle.api.GradleException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public final class ConcurrencyUtils {
+
+    private ConcurrencyUtils() { }
+
+    /**
+     * Creates a fixed thread pool of daemon threads, so that a pool which is not shut down does not keep the build
+     * running.
+     *
+     * @param threadNamePrefix the prefix of the thread names, e.g. {@code docker-push}.
+     * @param threads the number of threads, at least 1 thread is created.
+     * @return the thread pool.
+     */
+    public static ExecutorService newDaemonThreadPool(String threadNamePrefix, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Waits for all operations to finish and reports all failed operations at once.
+     * The exception thrown has the first failure as its cause, so that it is retried if that failure is transient.
+     *
+     * @param futures the operations in the order they are reported in.
+     * @param describeOperation describes an operation, e.g. {@code Image 'vieux/apache:2.0'}.
+     * @param failureSummary the summary of the failure following the number of failed operations, e.g. {@code images failed to push}.
+     * @param <T> the type of the objects the operations work on.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public static <T> void awaitAll(Map<T, ? extends Future<?>> futures, Function<? super T, String> describeOperation, String failureSummary) throws InterruptedException {
+        List<String> failures = new ArrayList<>();
+        Throwable firstFailure = null;
+        for (Map.Entry<T, ? extends Future<?>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                firstFailure = firstFailure != null ? firstFailure : cause;
+                failures.add(describeOperation.apply(entry.getKey()) + ": " + getMessage(cause));
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new GradleException(failures.size() + " of " + futures.size() + " " + failureSummary + ":\n" + String.join("\n", failures), firstFailure);
+        }
+    }
+
+    /**
+     * Returns the message of the given error, or its type if it has no message.
+     *
+     * @param throwable the error.
+     * @return the message.
+     */
+    public static String getMessage(Throwable throwable) {
+        return throwable.getMessage() != null ? throwable.getMessage() : throwable.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.bmuschko.gradle.docker.internal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Incrementally matches the raw output of a container stream against a literal message or a regular expression.
+ * <p>
+ * Literal messages are matched against the UTF-8 encoded bytes as they arrive, so a message split across frames
+ * is found without buffering or decoding the output. Regular expressions are matched against each complete line.
+ * <p>
+ * Instances are not thread-safe and are expected to be fed by a single stream callback.
+ */
+public final class LogMessageMatcher {
+
+    private final byte[] literal;
+    private final int[] failure;
+    private int matched;
+
+    private final OutputCollector lines;
+    private boolean found;
+
+    private LogMessageMatcher(byte[] literal) {
+        this.literal = literal;
+        this.failure = failureTable(literal);
+        this.lines = null;
+    }
+
+    private LogMessageMatcher(Pattern pattern) {
+        this.literal = null;
+        this.failure = null;
+        this.lines = new OutputCollector(line -> found |= pattern.matcher(line).find());
+    }
+
+    /**
+     * Creates a matcher for output containing the given message.
+     *
+     * @param message The message
+     * @return The matcher
+     */
+    public static LogMessageMatcher literal(String message) {
+        if (message.isEmpty()) {
+            throw new IllegalArgumentException("Log message to match must not be empty");
+        }
+        return new LogMessageMatcher(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a matcher for output with a line matching the given regular expression.
+     *
+     * @param pattern The regular expression, which is searched for in each line
+     * @return The matcher
+     */
+    public static LogMessageMatcher regex(Pattern pattern) {
+        return new LogMessageMatcher(pattern);
+    }
+
+    /**
+     * Accepts the next payload of the stream.
+     *
+     * @param payload The raw frame payload
+     * @return Whether the output matched so far
+     */
+    public boolean accept(byte[] payload) {
+        if (found) {
+            return true;
+        }
+        if (lines != null) {
+            lines.accept(payload);
+            return found;
+        }
+        for (byte b : payload) {
+            while (matched > 0 && literal[matched] != b) {
+                matched = failure[matched - 1];
+            }
+            if (literal[matched] == b) {
+                matched++;
+            }
+            if (matched == literal.length) {
+                found = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Matches an incomplete last line once the stream has ended.
+     *
+     * @return Whether the output matched
+     */
+    public boolean finish() {
+        if (lines != null && !found) {
+            try {
+                lines.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return found;
+    }
+
+    private static int[] failureTable(byte[] literal) {
+        int[] table = new int[literal.length];
+        int prefix = 0;
+        for (int i = 1; i < literal.length; i++) {
+            while (prefix > 0 && literal[i] != literal[prefix]) {
+                prefix = table[prefix - 1];
+            }
+            if (literal[i] == literal[prefix]) {
+                prefix++;
+            }
+            table[i] = prefix;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,238 @@
+package com.bmuschko.gradle.docker.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Arrays;
+
+/**
+ * Encodes the raw output of a container stream as newline-delimited JSON with one record per line, e.g.
+ * <pre>
+ * {"stream":"stdout","timestamp":"2024-01-01T12:00:00.123456789Z","payload":"Started application"}
+ * </pre>
+ * <p>
+ * Payload bytes are escaped and copied into the record directly without decoding them into strings. A line split
+ * across frames is buffered until it is complete, which also joins UTF-8 sequences split across frames. Bytes not
+ * forming valid UTF-8, such as output in another encoding or a sequence cut off at the end of the stream, are replaced
+ * by U+FFFD so that every record is valid JSON. If the container output is requested with timestamps, the timestamp
+ * Docker prefixes each line with is used, otherwise the time the line has been received.
+ * <p>
+ * Instances are not thread-safe and are expected to be fed by a single stream callback.
+ */
+public final class NdjsonLogEncoder implements AutoCloseable {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REPLACEMENT_CHARACTER = "\uFFFD".getBytes(StandardCharsets.UTF_8);
+
+    private final BufferedLogSink sink;
+    private final byte[] recordPrefix;
+    private final boolean timestampsInPayload;
+    private final Clock clock;
+
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private String lineReceived;
+    private byte[] record = new byte[512];
+    private int recordLength;
+
+    /**
+     * Creates a new encoder.
+     *
+     * @param sink The sink to write records to
+     * @param stream The name of the stream recorded with every line, e.g. {@code stdout}
+     * @param timestampsInPayload Whether each line is prefixed with a timestamp by Docker
+     * @param clock The clock used for the receive time of lines without timestamp
+     */
+    public NdjsonLogEncoder(BufferedLogSink sink, String stream, boolean timestampsInPayload, Clock clock) {
+        this.sink = sink;
+        this.recordPrefix = ("{\"stream\":\"" + stream + "\",\"timestamp\":\"").getBytes(StandardCharsets.UTF_8);
+        this.timestampsInPayload = timestampsInPayload;
+        this.clock = clock;
+    }
+
+    /**
+     * Writes a record for every complete line in the payload and buffers the remainder.
+     *
+     * @param payload The raw frame payload
+     * @throws IOException if the sink cannot be written
+     */
+    public void write(byte[] payload) throws IOException {
+        int lineStart = 0;
+        for (int i = 0; i < payload.length; i++) {
+            if (payload[i] == '\n') {
+                appendLine(payload, lineStart, i - lineStart);
+                writeRecord();
+                lineStart = i + 1;
+            }
+        }
+        appendLine(payload, lineStart, payload.length - lineStart);
+    }
+
+    /**
+     * Writes the record of an incomplete last line.
+     *
+     * @throws IOException if the sink cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (lineLength > 0) {
+            writeRecord();
+        }
+    }
+
+    private void appendLine(byte[] bytes, int offset, int length) {
+        if (lineReceived == null) {
+            lineReceived = clock.instant().toString();
+        }
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(lineLength + length, line.length * 2));
+        }
+        System.arraycopy(bytes, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private void writeRecord() throws IOException {
+        int end = lineLength;
+        if (end > 0 && line[end - 1] == '\r') {
+            end--;
+        }
+
+        int payloadStart = 0;
+        recordLength = 0;
+        appendRaw(recordPrefix, 0, recordPrefix.length);
+        int separator = timestampsInPayload ? indexOf(line, (byte) ' ', end) : -1;
+        if (separator > 0) {
+            appendEscaped(line, 0, separator);
+            payloadStart = separator + 1;
+        } else {
+            byte[] received = lineReceived.getBytes(StandardCharsets.US_ASCII);
+            appendRaw(received, 0, received.length);
+        }
+        appendAscii("\",\"payload\":\"");
+        appendEscaped(line, payloadStart, end);
+        appendAscii("\"}\n");
+        sink.write(record, 0, recordLength);
+
+        lineLength = 0;
+        lineReceived = null;
+    }
+
+    private void appendEscaped(byte[] bytes, int start, int end) {
+        ensureRecordCapacity((end - start) * 6);
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '"' || b == '\\') {
+                record[recordLength++] = '\\';
+                record[recordLength++] = b;
+            } else if (b >= 0 && b < 0x20) {
+                switch (b) {
+                    case '\n':
+                        record[recordLength++] = '\\';
+                        record[recordLength++] = 'n';
+                        break;
+                    case '\r':
+                        record[recordLength++] = '\\';
+                        record[recordLength++] = 'r';
+                        break;
+                    case '\t':
+                        record[recordLength++] = '\\';
+                        record[recordLength++] = 't';
+                        break;
+                    default:
+                        record[recordLength++] = '\\';
+                        record[recordLength++] = 'u';
+                        record[recordLength++] = '0';
+                        record[recordLength++] = '0';
+                        record[recordLength++] = HEX[b >> 4];
+                        record[recordLength++] = HEX[b & 0xF];
+                        break;
+                }
+            } else if (b >= 0) {
+                record[recordLength++] = b;
+            } else {
+                // multi-byte UTF-8 sequences are valid in JSON strings as they are
+                int length = utf8SequenceLength(bytes, i, end);
+                if (length > 0) {
+                    System.arraycopy(bytes, i, record, recordLength, length);
+                    recordLength += length;
+                    i += length - 1;
+                } else {
+                    System.arraycopy(REPLACEMENT_CHARACTER, 0, record, recordLength, REPLACEMENT_CHARACTER.length);
+                    recordLength += REPLACEMENT_CHARACTER.length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the length of the well-formed UTF-8 sequence starting with a non-ASCII byte.
+     *
+     * @return The length of the sequence or 0 if the bytes do not form a complete, well-formed sequence
+     */
+    private static int utf8SequenceLength(byte[] bytes, int start, int end) {
+        int lead = bytes[start] & 0xFF;
+        int length;
+        int secondMin = 0x80;
+        int secondMax = 0xBF;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            length = 2;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            length = 3;
+            if (lead == 0xE0) {
+                secondMin = 0xA0;
+            } else if (lead == 0xED) {
+                // surrogates are not allowed
+                secondMax = 0x9F;
+            }
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            length = 4;
+            if (lead == 0xF0) {
+                secondMin = 0x90;
+            } else if (lead == 0xF4) {
+                secondMax = 0x8F;
+            }
+        } else {
+            return 0;
+        }
+        if (start + length > end) {
+            return 0;
+        }
+        for (int i = 1; i < length; i++) {
+            int b = bytes[start + i] & 0xFF;
+            int min = i == 1 ? secondMin : 0x80;
+            int max = i == 1 ? secondMax : 0xBF;
+            if (b < min || b > max) {
+                return 0;
+            }
+        }
+        return length;
+    }
+
+    private void appendAscii(String value) {
+        ensureRecordCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            record[recordLength++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void appendRaw(byte[] bytes, int offset, int length) {
+        ensureRecordCapacity(length);
+        System.arraycopy(bytes, offset, record, recordLength, length);
+        recordLength += length;
+    }
+
+    private void ensureRecordCapacity(int additional) {
+        if (recordLength + additional > record.length) {
+            record = Arrays.copyOf(record, Math.max(recordLength + additional, record.length * 2));
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int end) {
+        for (int i = 0; i < end; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
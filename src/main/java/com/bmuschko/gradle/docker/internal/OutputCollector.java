@@ -2,10 +2,18 @@ package com.bmuschko.gradle.docker.internal;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 /**
  * A utility class that will collect strings until a new line is encountered.
+ * <p>
+ * Input is scanned for line terminators in place, so only the emitted lines are allocated. Raw bytes are expected to
+ * be UTF-8 encoded and are decoded per complete line, so a multi-byte character split across two chunks is decoded
+ * once the line is complete. String and byte input must not be mixed.
+ * <p>
+ * Instances are not thread-safe and are expected to be fed by a single stream callback.
  */
 public final class OutputCollector implements Closeable {
 
@@ -16,7 +24,20 @@ public final class OutputCollector implements Closeable {
     /**
      * The buffer to store the strings until a new line has been found.
      */
-    private final StringBuffer buffer = new StringBuffer();
+    private final StringBuilder buffer = new StringBuilder();
+    /**
+     * The buffer to store raw bytes until a new line has been found.
+     */
+    private byte[] byteBuffer = new byte[0];
+    private int byteBufferLength;
+    /**
+     * Whether the buffered bytes contain non-ASCII characters, which might include Unicode line terminators.
+     */
+    private boolean byteBufferNonAscii;
+    /**
+     * Whether the last character was a carriage return, in which case an immediately following line feed belongs to the same line terminator.
+     */
+    private boolean skipLineFeed;
 
     public OutputCollector(Consumer<String> output) {
         this.output = output;
@@ -29,18 +50,78 @@ public final class OutputCollector implements Closeable {
      * @param input The string to accept.
      */
     public void accept(String input) {
-        // Split the received output segment on line terminators (newlines).
-        // We always store the first part in the buffer. All subsequent parts result in
-        // a buffer flush.
-        // For example, if stream = "output line\n", the string will be split into ["output line", ""].
-        // The empty, second part will make sure the line is printed.
-        String[] parts = input.split("\\R", -1);
-        // We store the first substring in the buffer; all subsequent substrings will flush the buffer.
-        buffer.append(parts[0]);
-        for (int i = 1; i < parts.length; i++) {
-            flushBuffer();
-            buffer.append(parts[i]);
+        int lineStart = 0;
+        int end = input.length();
+        for (int i = 0; i < end; i++) {
+            char c = input.charAt(i);
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    lineStart = i + 1;
+                    continue;
+                }
+            }
+            if (isLineTerminator(c)) {
+                if (buffer.length() == 0) {
+                    output.accept(input.substring(lineStart, i));
+                } else {
+                    buffer.append(input, lineStart, i);
+                    flushBuffer();
+                }
+                skipLineFeed = c == '\r';
+                lineStart = i + 1;
+            }
+        }
+        buffer.append(input, lineStart, end);
+    }
+
+    /**
+     * Accept UTF-8 encoded bytes as input. The collector will save the inputs until a new line is encountered, or the
+     * collector is closed. The newlines are stripped and not present in the output.
+     *
+     * @param input The bytes to accept.
+     */
+    public void accept(byte[] input) {
+        accept(input, 0, input.length);
+    }
+
+    /**
+     * Accept a range of UTF-8 encoded bytes as input. The collector will save the inputs until a new line is
+     * encountered, or the collector is closed. The newlines are stripped and not present in the output.
+     *
+     * @param input The bytes to accept.
+     * @param offset The index of the first byte to accept.
+     * @param length The number of bytes to accept.
+     */
+    public void accept(byte[] input, int offset, int length) {
+        int lineStart = offset;
+        int end = offset + length;
+        boolean nonAscii = false;
+        for (int i = offset; i < end; i++) {
+            byte b = input[i];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (b == '\n') {
+                    lineStart = i + 1;
+                    continue;
+                }
+            }
+            // Bytes of multi-byte UTF-8 sequences are negative, so they never match an ASCII line terminator
+            if (b == '\n' || b == '\r' || b == 0x0B || b == 0x0C) {
+                if (byteBufferLength == 0) {
+                    emitLine(new String(input, lineStart, i - lineStart, StandardCharsets.UTF_8), nonAscii);
+                } else {
+                    appendBytes(input, lineStart, i - lineStart, nonAscii);
+                    flushByteBuffer();
+                }
+                nonAscii = false;
+                skipLineFeed = b == '\r';
+                lineStart = i + 1;
+            } else if (b < 0) {
+                nonAscii = true;
+            }
         }
+        appendBytes(input, lineStart, end - lineStart, nonAscii);
     }
 
     @Override
@@ -48,6 +129,52 @@ public final class OutputCollector implements Closeable {
         if (buffer.length() > 0) {
             flushBuffer();
         }
+        if (byteBufferLength > 0) {
+            flushByteBuffer();
+        }
+    }
+
+    private void appendBytes(byte[] input, int offset, int length, boolean nonAscii) {
+        if (length == 0) {
+            return;
+        }
+        if (byteBufferLength + length > byteBuffer.length) {
+            byteBuffer = Arrays.copyOf(byteBuffer, Math.max(byteBufferLength + length, byteBuffer.length * 2));
+        }
+        System.arraycopy(input, offset, byteBuffer, byteBufferLength, length);
+        byteBufferLength += length;
+        byteBufferNonAscii |= nonAscii;
+    }
+
+    private void flushByteBuffer() {
+        emitLine(new String(byteBuffer, 0, byteBufferLength, StandardCharsets.UTF_8), byteBufferNonAscii);
+        byteBufferLength = 0;
+        byteBufferNonAscii = false;
+    }
+
+    /**
+     * Emits a line decoded from bytes, splitting it further at the non-ASCII line terminators matched by {@code \R}.
+     */
+    private void emitLine(String line, boolean nonAscii) {
+        if (!nonAscii) {
+            output.accept(line);
+            return;
+        }
+        int lineStart = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (isLineTerminator(line.charAt(i))) {
+                output.accept(line.substring(lineStart, i));
+                lineStart = i + 1;
+            }
+        }
+        output.accept(lineStart == 0 ? line : line.substring(lineStart));
+    }
+
+    /**
+     * Checks for the same line terminators as the regular expression {@code \R}.
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u000B' || c == '\u000C' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 
     /**
@@ -55,6 +182,6 @@ public final class OutputCollector implements Closeable {
      */
     private void flushBuffer() {
         output.accept(buffer.toString());
-        buffer.delete(0, buffer.length());
+        buffer.setLength(0);
     }
 }
@@ -0,0 +1,268 @@
+package com.bmuschko.gradle.docker.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dockerjava.api.model.AuthConfig;
+import com.github.dockerjava.core.NameParser;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Queries the digest of image manifests from a registry using the registry HTTP API V2.
+ * <p>
+ * Only the manifest's headers are requested, so checking an image does not count towards pull rate limits.
+ * Any failure to determine the digest is reported as an unknown digest, leaving the decision to the caller.
+ */
+public class RegistryManifestClient {
+
+    private static final Logger logger = Logging.getLogger(RegistryManifestClient.class);
+
+    private static final String DOCKER_HUB_REGISTRY = "registry-1.docker.io";
+    private static final String DOCKER_HUB_DOMAIN = "docker.io";
+    private static final String DIGEST_HEADER = "Docker-Content-Digest";
+    private static final String MANIFEST_MEDIA_TYPES = String.join(", ",
+            "application/vnd.docker.distribution.manifest.v2+json",
+            "application/vnd.docker.distribution.manifest.list.v2+json",
+            "application/vnd.oci.image.manifest.v1+json",
+            "application/vnd.oci.image.index.v1+json");
+    private static final Pattern CHALLENGE_PARAMETER = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RegistryManifestClient() {
+        this(HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build());
+    }
+
+    RegistryManifestClient(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Determines the digest of the manifest an image reference currently points to in its registry.
+     *
+     * @param image the image reference e.g. {@code vieux/apache:2.0}
+     * @param authConfig the credentials for the registry or null
+     * @return the digest or null if the image does not exist in the registry or the registry could not be queried
+     * @throws InterruptedException if interrupted while waiting for the registry
+     */
+    @Nullable
+    public String getManifestDigest(String image, @Nullable AuthConfig authConfig) throws InterruptedException {
+        ImageReference reference = ImageReference.parse(image);
+        if (reference == null) {
+            return null;
+        }
+
+        try {
+            URI uri = URI.create(reference.getScheme() + "://" + reference.getRegistryHost() + "/v2/" + reference.getRepository() + "/manifests/" + reference.getTag());
+            HttpResponse<Void> response = head(uri, null);
+            if (response.statusCode() == 401) {
+                String authorization = authorize(response.headers().firstValue("WWW-Authenticate").orElse(""), reference, authConfig);
+                if (authorization == null) {
+                    logger.info("Could not authenticate to registry of image '" + image + "'.");
+                    return null;
+                }
+                response = head(uri, authorization);
+            }
+            if (response.statusCode() != 200) {
+                logger.info("Registry responded with status " + response.statusCode() + " to manifest request for image '" + image + "'.");
+                return null;
+            }
+            return response.headers().firstValue(DIGEST_HEADER).orElse(null);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.info("Could not query manifest of image '" + image + "' from registry: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private HttpResponse<Void> head(URI uri, @Nullable String authorization) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .header("Accept", MANIFEST_MEDIA_TYPES)
+                .timeout(TIMEOUT);
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    @Nullable
+    private String authorize(String challenge, ImageReference reference, @Nullable AuthConfig authConfig) throws IOException, InterruptedException {
+        String basic = basicAuthorization(authConfig);
+        if (challenge.regionMatches(true, 0, "Basic", 0, 5)) {
+            return basic;
+        }
+        if (!challenge.regionMatches(true, 0, "Bearer", 0, 6)) {
+            return null;
+        }
+        if (authConfig != null && authConfig.getRegistrytoken() != null) {
+            return "Bearer " + authConfig.getRegistrytoken();
+        }
+
+        Map<String, String> parameters = parseChallenge(challenge);
+        String realm = parameters.get("realm");
+        if (realm == null) {
+            return null;
+        }
+        StringBuilder tokenUri = new StringBuilder(realm).append(realm.contains("?") ? '&' : '?');
+        if (parameters.containsKey("service")) {
+            tokenUri.append("service=").append(URLEncoder.encode(parameters.get("service"), StandardCharsets.UTF_8)).append('&');
+        }
+        String scope = parameters.getOrDefault("scope", "repository:" + reference.getRepository() + ":pull");
+        tokenUri.append("scope=").append(URLEncoder.encode(scope, StandardCharsets.UTF_8));
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(tokenUri.toString())).GET().timeout(TIMEOUT);
+        if (basic != null) {
+            request.header("Authorization", basic);
+        }
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        Map<?, ?> body = objectMapper.readValue(response.body(), Map.class);
+        Object token = body.get("token") != null ? body.get("token") : body.get("access_token");
+        return token != null ? "Bearer " + token : null;
+    }
+
+    @Nullable
+    private static String basicAuthorization(@Nullable AuthConfig authConfig) {
+        if (authConfig == null) {
+            return null;
+        }
+        if (authConfig.getUsername() != null && authConfig.getPassword() != null) {
+            String credentials = authConfig.getUsername() + ":" + authConfig.getPassword();
+            return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        }
+        return authConfig.getAuth() != null ? "Basic " + authConfig.getAuth() : null;
+    }
+
+    /**
+     * Parses the parameters of a {@code WWW-Authenticate} challenge, e.g.
+     * {@code Bearer realm="https://auth.docker.io/token",service="registry.docker.io"}.
+     *
+     * @param challenge the challenge
+     * @return the parameters by name
+     */
+    static Map<String, String> parseChallenge(String challenge) {
+        Map<String, String> parameters = new HashMap<>();
+        Matcher matcher = CHALLENGE_PARAMETER.matcher(challenge);
+        while (matcher.find()) {
+            parameters.put(matcher.group(1).toLowerCase(), matcher.group(2));
+        }
+        return parameters;
+    }
+
+    /**
+     * Checks whether one of the repository digests of a local image refers to the given digest in the image's repository.
+     *
+     * @param image the image reference e.g. {@code vieux/apache:2.0}
+     * @param repoDigests the repository digests of the local image e.g. {@code vieux/apache@sha256:...}
+     * @param digest the digest to look for
+     * @return true if the local image has the given digest in the image's repository
+     */
+    public static boolean hasRepoDigest(String image, @Nullable List<String> repoDigests, String digest) {
+        ImageReference reference = ImageReference.parse(image);
+        if (reference == null || repoDigests == null) {
+            return false;
+        }
+        for (String repoDigest : repoDigests) {
+            int separator = repoDigest.indexOf('@');
+            if (separator < 0 || !repoDigest.substring(separator + 1).equals(digest)) {
+                continue;
+            }
+            ImageReference local = ImageReference.parse(repoDigest.substring(0, separator));
+            if (local != null && local.getRegistryHost().equals(reference.getRegistryHost()) && local.getRepository().equals(reference.getRepository())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the reference by digest of an image in its repository, which is the same for all tags of the repository
+     * pointing to that digest.
+     *
+     * @param image the image reference e.g. {@code vieux/apache:2.0}
+     * @param digest the digest of the image's manifest
+     * @return the reference e.g. {@code registry-1.docker.io/vieux/apache@sha256:...} or null if the image is referenced by digest already
+     */
+    @Nullable
+    public static String getDigestReference(String image, String digest) {
+        ImageReference reference = ImageReference.parse(image);
+        return reference != null ? reference.getRegistryHost() + "/" + reference.getRepository() + "@" + digest : null;
+    }
+
+    /**
+     * The location of an image reference in the registry API.
+     */
+    static final class ImageReference {
+        private final String registryHost;
+        private final String repository;
+        private final String tag;
+
+        private ImageReference(String registryHost, String repository, String tag) {
+            this.registryHost = registryHost;
+            this.repository = repository;
+            this.tag = tag;
+        }
+
+        /**
+         * Parses an image reference.
+         *
+         * @return the reference or null if the image is referenced by digest already
+         */
+        @Nullable
+        static ImageReference parse(String image) {
+            if (image.contains("@")) {
+                return null;
+            }
+            NameParser.ReposTag reposTag = NameParser.parseRepositoryTag(image);
+            NameParser.HostnameReposName name = NameParser.resolveRepositoryName(reposTag.repos);
+            String host = name.hostname;
+            String repository = name.reposName;
+            if (host.equals(AuthConfig.DEFAULT_SERVER_ADDRESS) || host.equals(DOCKER_HUB_DOMAIN) || host.equals(DOCKER_HUB_REGISTRY) || host.equals("index.docker.io")) {
+                host = DOCKER_HUB_REGISTRY;
+                if (!repository.contains("/")) {
+                    repository = "library/" + repository;
+                }
+            }
+            return new ImageReference(host, repository, reposTag.tag.isEmpty() ? "latest" : reposTag.tag);
+        }
+
+        String getScheme() {
+            // like the daemon, talk plain HTTP to registries on the local machine only
+            return registryHost.startsWith("localhost:") || registryHost.equals("localhost") || registryHost.startsWith("127.0.0.1") ? "http" : "https";
+        }
+
+        String getRegistryHost() {
+            return registryHost;
+        }
+
+        String getRepository() {
+            return repository;
+        }
+
+        String getTag() {
+            return tag;
+        }
+    }
+}
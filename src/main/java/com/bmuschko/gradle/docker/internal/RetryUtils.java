@@ -0,0 +1,80 @@
+package com.bmuschko.gradle.docker.internal;
+
+import com.github.dockerjava.api.exception.DockerException;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionClosedException;
+import org.apache.hc.core5.http.NoHttpResponseException;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+public final class RetryUtils {
+
+    /**
+     * The errors the HTTP transports report for a failed or lost connection, including the copies shaded into the
+     * zerodep transport.
+     */
+    private static final List<Class<? extends Throwable>> CONNECTION_FAILURES = List.of(
+        SocketException.class,
+        SocketTimeoutException.class,
+        ConnectTimeoutException.class,
+        NoHttpResponseException.class,
+        ConnectionClosedException.class,
+        com.github.dockerjava.zerodep.shaded.org.apache.hc.client5.http.ConnectTimeoutException.class,
+        com.github.dockerjava.zerodep.shaded.org.apache.hc.core5.http.NoHttpResponseException.class,
+        com.github.dockerjava.zerodep.shaded.org.apache.hc.core5.http.ConnectionClosedException.class
+    );
+
+    private RetryUtils() { }
+
+    /**
+     * Checks whether the given error is likely to go away when the operation is repeated.
+     * This is the case for connection failures like refused or reset connections and timeouts, as well as for 500, 502,
+     * 503 and 504 responses from the daemon. Other I/O errors, e.g. a missing file or a full disk, are local and not
+     * transient.
+     *
+     * @param throwable the error.
+     * @return true if the error is transient.
+     */
+    public static boolean isTransient(Throwable throwable) {
+        Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable current = throwable; current != null && visited.add(current); current = current.getCause()) {
+            for (Class<? extends Throwable> connectionFailure : CONNECTION_FAILURES) {
+                if (connectionFailure.isInstance(current)) {
+                    return true;
+                }
+            }
+            if (current instanceof DockerException) {
+                int status = ((DockerException) current).getHttpStatus();
+                return status == 500 || status == 502 || status == 503 || status == 504;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculates the delay before the given retry using exponential backoff with jitter.
+     *
+     * @param retry          the number of the retry, starting with 1.
+     * @param initialBackoff the delay before the first retry.
+     * @param maxBackoff     the upper bound for the delay.
+     * @param jitter         the fraction between 0 and 1 by which the delay is randomly shortened.
+     * @param random         a random value between 0 and 1.
+     * @return the delay in milliseconds.
+     */
+    public static long backoffMillis(int retry, Duration initialBackoff, Duration maxBackoff, double jitter, double random) {
+        long maxMillis = maxBackoff.toMillis();
+        long delay = initialBackoff.toMillis();
+        for (int i = 1; i < retry && delay < maxMillis; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, maxMillis);
+        double boundedJitter = Math.max(0, Math.min(1, jitter));
+        return Math.round(delay * (1 - boundedJitter * random));
+    }
+}
@@ -0,0 +1,211 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects request metrics for the Docker remote API grouped by endpoint.
+ * <p>
+ * An endpoint is the HTTP method and the request path without API version prefix, query string and resource IDs,
+ * e.g. {@code POST /containers/{id}/start}.
+ */
+final class DockerApiMetrics {
+
+    /**
+     * Upper bounds in milliseconds of the latency histogram buckets. The last bucket collects all slower requests.
+     */
+    static final long[] LATENCY_BUCKETS_MILLIS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+    private static final Set<String> RESOURCES_WITH_ID = new HashSet<>(Arrays.asList(
+            "containers", "exec", "networks", "volumes", "plugins", "services", "tasks", "secrets", "configs", "nodes"));
+    private static final Set<String> COLLECTION_ACTIONS = new HashSet<>(Arrays.asList(
+            "create", "json", "prune", "load", "search", "get", "join", "leave", "init", "update", "unlock", "unlockkey", "pull", "privileges"));
+    private static final Set<String> IMAGE_ACTIONS = new HashSet<>(Arrays.asList(
+            "json", "history", "push", "tag", "get"));
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAccumulator peakInFlight = new LongAccumulator(Math::max, 0);
+
+    EndpointMetrics endpoint(String method, String path) {
+        return endpoints.computeIfAbsent(normalize(method, path), name -> new EndpointMetrics());
+    }
+
+    void requestStarted(EndpointMetrics endpoint) {
+        peakInFlight.accumulate(inFlight.incrementAndGet());
+        endpoint.requestStarted();
+    }
+
+    void requestFinished(EndpointMetrics endpoint, long durationNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        endpoint.requestFinished(durationNanos, failed);
+    }
+
+    boolean isEmpty() {
+        return endpoints.isEmpty();
+    }
+
+    /**
+     * Returns a human-readable summary with one line per endpoint, slowest endpoints first.
+     *
+     * @return The summary lines
+     */
+    List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        long bytesIn = 0;
+        long bytesOut = 0;
+        for (EndpointMetrics metrics : endpoints.values()) {
+            requests += metrics.count.sum();
+            errors += metrics.errors.sum();
+            bytesIn += metrics.bytesIn.sum();
+            bytesOut += metrics.bytesOut.sum();
+        }
+        lines.add("Docker remote API: " + requests + " requests, " + errors + " errors, " + bytesIn + " bytes in, " + bytesOut + " bytes out, peak in-flight " + peakInFlight.get());
+        sortedEndpoints().forEach(entry -> {
+            EndpointMetrics metrics = entry.getValue();
+            lines.add(String.format("  %-45s %6d calls %6d errors %10d ms total %8d ms max",
+                    entry.getKey(), metrics.count.sum(), metrics.errors.sum(), toMillis(metrics.totalNanos.sum()), toMillis(metrics.maxNanos.get())));
+        });
+        return lines;
+    }
+
+    /**
+     * Writes all collected metrics as JSON document.
+     *
+     * @param file The target file
+     * @throws IOException if the file cannot be written
+     */
+    void writeReport(File file) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("peakInFlight", peakInFlight.get());
+        report.put("latencyBucketsMillis", LATENCY_BUCKETS_MILLIS);
+        Map<String, Object> endpointReports = new LinkedHashMap<>();
+        sortedEndpoints().forEach(entry -> endpointReports.put(entry.getKey(), entry.getValue().toReport()));
+        report.put("endpoints", endpointReports);
+
+        file.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+    }
+
+    private List<Map.Entry<String, EndpointMetrics>> sortedEndpoints() {
+        List<Map.Entry<String, EndpointMetrics>> entries = new ArrayList<>(endpoints.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, EndpointMetrics> entry) -> entry.getValue().totalNanos.sum()).reversed());
+        return entries;
+    }
+
+    static String normalize(String method, String path) {
+        int queryIndex = path.indexOf('?');
+        String strippedPath = queryIndex >= 0 ? path.substring(0, queryIndex) : path;
+        List<String> segments = new ArrayList<>();
+        for (String segment : strippedPath.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+
+        if (!segments.isEmpty() && segments.get(0).matches("v\\d+(\\.\\d+)?")) {
+            segments.remove(0);
+        }
+
+        if (segments.size() > 1) {
+            String resource = segments.get(0);
+            if (resource.equals("images") && !COLLECTION_ACTIONS.contains(segments.get(1))) {
+                String last = segments.get(segments.size() - 1);
+                boolean hasAction = segments.size() > 2 && IMAGE_ACTIONS.contains(last);
+                segments = hasAction ? Arrays.asList(resource, "{name}", last) : Arrays.asList(resource, "{name}");
+            } else if (RESOURCES_WITH_ID.contains(resource) && !COLLECTION_ACTIONS.contains(segments.get(1))) {
+                segments.set(1, "{id}");
+            }
+        }
+
+        return method + " /" + String.join("/", segments);
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Metrics of a single endpoint.
+     */
+    static final class EndpointMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAccumulator peakInFlight = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS_MILLIS.length + 1);
+
+        void addBytesIn(long bytes) {
+            bytesIn.add(bytes);
+        }
+
+        void addBytesOut(long bytes) {
+            bytesOut.add(bytes);
+        }
+
+        private void requestStarted() {
+            peakInFlight.accumulate(inFlight.incrementAndGet());
+        }
+
+        private void requestFinished(long durationNanos, boolean failed) {
+            inFlight.decrementAndGet();
+            count.increment();
+            if (failed) {
+                errors.increment();
+            }
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+            latencyHistogram.incrementAndGet(bucketIndex(toMillis(durationNanos)));
+        }
+
+        private static int bucketIndex(long millis) {
+            for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+                if (millis <= LATENCY_BUCKETS_MILLIS[i]) {
+                    return i;
+                }
+            }
+            return LATENCY_BUCKETS_MILLIS.length;
+        }
+
+        private Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("count", count.sum());
+            report.put("errors", errors.sum());
+            report.put("bytesIn", bytesIn.sum());
+            report.put("bytesOut", bytesOut.sum());
+            report.put("totalMillis", toMillis(totalNanos.sum()));
+            report.put("maxMillis", toMillis(maxNanos.get()));
+            report.put("peakInFlight", peakInFlight.get());
+            long[] histogram = new long[latencyHistogram.length()];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = latencyHistogram.get(i);
+            }
+            report.put("latencyHistogram", histogram);
+            return report;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import org.gradle.api.GradleException;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops sending requests to the Docker daemon after a number of consecutive transient failures.
+ * <p>
+ * Once open, every operation fails fast until the reset timeout has elapsed. Afterwards a single trial operation is let
+ * through; its success closes the breaker again, its failure re-opens it.
+ */
+final class DockerCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long resetTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean open;
+    private boolean trialInProgress;
+
+    DockerCircuitBreaker(int failureThreshold, Duration resetTimeout) {
+        this(failureThreshold, resetTimeout, System::nanoTime);
+    }
+
+    DockerCircuitBreaker(int failureThreshold, Duration resetTimeout, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Circuit breaker failure threshold must be at least 1 but was " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.resetTimeoutNanos = resetTimeout.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Fails if the breaker is open.
+     */
+    synchronized void checkClosed() {
+        if (!open) {
+            return;
+        }
+        if (!trialInProgress && nanoClock.getAsLong() - openedAtNanos >= resetTimeoutNanos) {
+            trialInProgress = true;
+            return;
+        }
+        throw new GradleException("Docker daemon is considered unavailable after " + consecutiveFailures + " consecutive failures. Failing fast until it recovers.");
+    }
+
+    synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        open = false;
+        trialInProgress = false;
+    }
+
+    synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (trialInProgress || consecutiveFailures >= failureThreshold) {
+            open = true;
+            trialInProgress = false;
+            openedAtNanos = nanoClock.getAsLong();
+        }
+    }
+}
@@ -1,32 +1,82 @@
 package com.bmuschko.gradle.docker.internal.services;
 
+import com.bmuschko.gradle.docker.DockerHostSelectionStrategy;
+import com.bmuschko.gradle.docker.DockerHttpTransport;
+import com.bmuschko.gradle.docker.internal.RetryUtils;
 import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.model.Version;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientImpl;
 import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import com.github.dockerjava.transport.DockerHttpClient;
+import com.github.dockerjava.zerodep.ZerodepDockerHttpClient;
 import org.gradle.api.file.Directory;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.services.BuildService;
 import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Build service for Docker client.
+ * <p>
+ * The service is registered as task completion listener so that Gradle instantiates it at the start of the execution phase,
+ * which allows for warming up the Docker client before the first task requests it.
  */
-public abstract class DockerClientService implements BuildService<DockerClientService.Params>, AutoCloseable {
+public abstract class DockerClientService implements BuildService<DockerClientService.Params>, OperationCompletionListener, AutoCloseable {
+    private static final Logger logger = Logging.getLogger(DockerClientService.class);
+
+    private static final Duration DEFAULT_SHARED_IDLE_CONNECTION_TIMEOUT = Duration.ofMinutes(5);
+
+    private final DockerApiMetrics metrics = new DockerApiMetrics();
+
     private final Map<DefaultDockerClientConfig, DockerClient> dockerClients;
 
+    private final Map<DockerClient, CompletableFuture<Version>> daemonVersions = new ConcurrentHashMap<>();
+
+    private final List<IdleEvictingDockerHttpClient> evictingHttpClients = new CopyOnWriteArrayList<>();
+
     private final ObjectFactory objects;
 
+    @Nullable
+    private final Thread warmUpThread;
+
+    private ScheduledExecutorService idleEvictionExecutor;
+
+    private DockerOperationLimiter operationLimiter;
+
+    private DockerCircuitBreaker circuitBreaker;
+
+    private DockerHostPool hostPool;
+
+    private ScheduledExecutorService healthCheckExecutor;
+
     /**
      * Parameters for build service.
      */
@@ -38,6 +88,27 @@ public abstract class DockerClientService implements BuildService<DockerClientSe
          */
         Property<String> getUrl();
 
+        /**
+         * The server URLs of a pool of Docker hosts operations are distributed across. The pool is not used if empty.
+         *
+         * @return The pooled server URLs
+         */
+        ListProperty<String> getUrls();
+
+        /**
+         * The strategy for selecting a host from the pool for a new image, container or network.
+         *
+         * @return The host selection strategy
+         */
+        Property<DockerHostSelectionStrategy> getHostSelectionStrategy();
+
+        /**
+         * The interval in which the hosts of the pool are pinged. Health checks are disabled if not set.
+         *
+         * @return The health check interval
+         */
+        Property<Duration> getHealthCheckInterval();
+
         /**
          * The path to certificates for communicating with Docker over SSL.
          *
@@ -51,6 +122,127 @@ public abstract class DockerClientService implements BuildService<DockerClientSe
          * @return The remote API
          */
         Property<String> getApiVersion();
+
+        /**
+         * The HTTP transport used for communicating with the Docker daemon.
+         *
+         * @return The HTTP transport
+         */
+        Property<DockerHttpTransport> getTransport();
+
+        /**
+         * Whether to connect to the Docker daemon in the background as soon as the build starts executing tasks.
+         *
+         * @return The warm-up flag
+         */
+        Property<Boolean> getWarmUp();
+
+        /**
+         * The maximum number of pooled HTTP connections shared by all tasks talking to the same Docker host.
+         *
+         * @return The maximum number of connections
+         */
+        Property<Integer> getMaxConnections();
+
+        /**
+         * The timeout for establishing a connection to the Docker host.
+         *
+         * @return The connection timeout
+         */
+        Property<Duration> getConnectionTimeout();
+
+        /**
+         * The timeout for waiting on a response from the Docker host.
+         *
+         * @return The response timeout
+         */
+        Property<Duration> getResponseTimeout();
+
+        /**
+         * The time after which the pooled connections of an unused client are released.
+         *
+         * @return The idle connection timeout
+         */
+        Property<Duration> getIdleConnectionTimeout();
+
+        /**
+         * Whether to keep HTTP connections to the Docker daemon alive across builds running in the same Gradle daemon.
+         *
+         * @return The client reuse flag
+         */
+        Property<Boolean> getReuseClientsAcrossBuilds();
+
+        /**
+         * The maximum number of image builds running against the Docker daemon at the same time.
+         *
+         * @return The maximum number of parallel builds
+         */
+        Property<Integer> getMaxParallelBuilds();
+
+        /**
+         * The maximum number of image pushes, pulls, saves and loads running against the Docker daemon at the same time.
+         *
+         * @return The maximum number of parallel transfers
+         */
+        Property<Integer> getMaxParallelTransfers();
+
+        /**
+         * The maximum number of all other operations running against the Docker daemon at the same time.
+         *
+         * @return The maximum number of parallel operations
+         */
+        Property<Integer> getMaxParallelOperations();
+
+        /**
+         * The number of consecutive transient failures after which operations fail fast. Disabled if not set.
+         *
+         * @return The circuit breaker failure threshold
+         */
+        Property<Integer> getCircuitBreakerFailureThreshold();
+
+        /**
+         * The time after which a single trial operation is allowed again once the circuit breaker opened.
+         *
+         * @return The circuit breaker reset timeout
+         */
+        Property<Duration> getCircuitBreakerResetTimeout();
+
+        /**
+         * Whether to record metrics for every request sent to the Docker remote API.
+         *
+         * @return The metrics flag
+         */
+        Property<Boolean> getMetricsEnabled();
+
+        /**
+         * The directory the metrics report is written to at the end of the build.
+         *
+         * @return The metrics report directory
+         */
+        DirectoryProperty getMetricsReportDirectory();
+    }
+
+    /**
+     * A permit to run a Docker operation which has to be closed once the operation finished.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * The host selected from the pool for a single operation which has to be closed once the operation finished.
+     */
+    public interface HostLease extends AutoCloseable {
+        /**
+         * Returns the server URL of the selected host.
+         *
+         * @return The server URL
+         */
+        String getUrl();
+
+        @Override
+        void close();
     }
 
     /**
@@ -62,6 +254,64 @@ public abstract class DockerClientService implements BuildService<DockerClientSe
     public DockerClientService(ObjectFactory objects) {
         this.objects = objects;
         dockerClients = new ConcurrentHashMap<>();
+
+        if (getParameters().getWarmUp().getOrElse(false)) {
+            warmUpThread = new Thread(this::warmUp, "docker-client-warm-up");
+            warmUpThread.setDaemon(true);
+            warmUpThread.start();
+        } else {
+            warmUpThread = null;
+        }
+    }
+
+    /**
+     * Connects the Docker client for the default configuration and queries the daemon version so that the first task
+     * finds an established connection.
+     */
+    private void warmUp() {
+        try {
+            DockerClient dockerClient = getDockerClient(objects.property(String.class), objects.directoryProperty(), objects.property(String.class));
+            dockerClient.pingCmd().exec();
+            Version version = getDaemonVersion(dockerClient);
+            logger.info("Warmed up Docker client for daemon version " + version.getVersion() + " with API version " + version.getApiVersion() + ".");
+        } catch (Exception e) {
+            logger.info("Failed to warm up Docker client.", e);
+        }
+    }
+
+    /**
+     * Returns the version of the Docker daemon the given client is connected to.
+     * The version is requested only once per client and build, concurrent callers wait for the pending request.
+     *
+     * @param dockerClient The Docker client
+     * @return The daemon version
+     */
+    public Version getDaemonVersion(DockerClient dockerClient) {
+        CompletableFuture<Version> version = new CompletableFuture<>();
+        CompletableFuture<Version> pending = daemonVersions.putIfAbsent(dockerClient, version);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        // the request is sent outside of the map so that it does not block other callers on the map
+        try {
+            version.complete(dockerClient.versionCmd().exec());
+        } catch (RuntimeException e) {
+            // allow the next caller to try again
+            daemonVersions.remove(dockerClient, version);
+            version.completeExceptionally(e);
+            throw e;
+        }
+        return version.join();
+    }
+
+    @Override
+    public void onFinish(FinishEvent event) {
+        // Only registered to be instantiated at the start of the execution phase
     }
 
     /**
@@ -73,10 +323,13 @@ public abstract class DockerClientService implements BuildService<DockerClientSe
      * @return Docker client
      */
     public DockerClient getDockerClient(Provider<String> urlProvider, Provider<Directory> certPathProvider, Provider<String> apiVersionProvider) {
-        String dockerUrl = getDockerHostUrl(urlProvider);
+        String dockerUrl = getDockerHostUrl(urlProvider.orElse(getParameters().getUrl()).get());
         File dockerCertPath = certPathProvider.orElse(getParameters().getCertPath()).map(Directory::getAsFile).getOrNull();
         String apiVersion = apiVersionProvider.orElse(getParameters().getApiVersion()).getOrNull();
+        return getDockerClient(dockerUrl, dockerCertPath, apiVersion);
+    }
 
+    private DockerClient getDockerClient(String dockerUrl, @Nullable File dockerCertPath, @Nullable String apiVersion) {
         // Create configuration
         DefaultDockerClientConfig.Builder dockerClientConfigBuilder = DefaultDockerClientConfig.createDefaultConfigBuilder();
         dockerClientConfigBuilder.withDockerHost(dockerUrl);
@@ -102,34 +355,302 @@ public abstract class DockerClientService implements BuildService<DockerClientSe
         return createDefaultDockerClient(dockerClientConfig);
     }
 
+    /**
+     * Blocks until an operation of the given category is allowed to run.
+     *
+     * @param category The category of the operation
+     * @return The permit to be closed once the operation finished
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquirePermit(DockerOperationCategory category) throws InterruptedException {
+        return getOperationLimiter().acquire(category);
+    }
+
+    /**
+     * Fails fast if the Docker daemon is considered unavailable after too many consecutive transient failures.
+     */
+    public void checkDaemonAvailable() {
+        DockerCircuitBreaker breaker = getCircuitBreaker();
+        if (breaker != null) {
+            breaker.checkClosed();
+        }
+    }
+
+    /**
+     * Records the outcome of an operation for the circuit breaker. Only transient errors count as failures,
+     * any other error proves the daemon to be responsive.
+     *
+     * @param failure The error the operation failed with or null if it succeeded
+     */
+    public void recordOperationResult(@Nullable Throwable failure) {
+        DockerCircuitBreaker breaker = getCircuitBreaker();
+        if (breaker == null) {
+            return;
+        }
+        if (failure != null && RetryUtils.isTransient(failure)) {
+            breaker.recordFailure();
+        } else {
+            breaker.recordSuccess();
+        }
+    }
+
+    /**
+     * Selects a host from the pool for an operation on the given resources.
+     * Operations on a resource always go to the host the resource was first used with.
+     *
+     * @param affinityKeys The image names and IDs, container IDs or network IDs the operation works on
+     * @return The lease for the selected host or null if no pool of hosts is configured
+     */
+    @Nullable
+    public HostLease acquireHost(Collection<String> affinityKeys) {
+        DockerHostPool pool = getHostPool();
+        return pool != null ? pool.acquire(affinityKeys) : null;
+    }
+
+    /**
+     * Returns the pooled host any of the given resources has been used with during the build.
+     *
+     * @param affinityKeys The image names and IDs, container IDs or network IDs
+     * @return The server URL or null if unknown or no pool of hosts is configured
+     */
+    @Nullable
+    public String findHost(Collection<String> affinityKeys) {
+        DockerHostPool pool = getHostPool();
+        return pool != null ? pool.findBoundHost(affinityKeys) : null;
+    }
+
+    /**
+     * Binds a resource created by an operation to the pooled host the operation ran on.
+     *
+     * @param affinityKey The ID of the created image, container or network
+     * @param url The server URL of the host
+     */
+    public void bindToHost(String affinityKey, String url) {
+        DockerHostPool pool = getHostPool();
+        if (pool != null) {
+            pool.bind(affinityKey, url);
+        }
+    }
+
+    /**
+     * Excludes a pooled host from the selection for new resources until its next successful health check.
+     *
+     * @param url The server URL of the host
+     */
+    public void markHostUnavailable(String url) {
+        DockerHostPool pool = getHostPool();
+        if (pool != null) {
+            logger.warn("Docker host " + url + " is considered unavailable.");
+            pool.markHealthy(url, false);
+        }
+    }
+
+    private synchronized DockerHostPool getHostPool() {
+        List<String> urls = getParameters().getUrls().getOrElse(List.of());
+        if (hostPool == null && !urls.isEmpty()) {
+            hostPool = new DockerHostPool(urls, getParameters().getHostSelectionStrategy().getOrElse(DockerHostSelectionStrategy.ROUND_ROBIN));
+            Duration healthCheckInterval = getParameters().getHealthCheckInterval().getOrNull();
+            if (healthCheckInterval != null) {
+                healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "docker-host-health-check");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                healthCheckExecutor.scheduleWithFixedDelay(this::checkHostHealth, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        return hostPool;
+    }
+
+    private void checkHostHealth() {
+        File certPath = getParameters().getCertPath().map(Directory::getAsFile).getOrNull();
+        String apiVersion = getParameters().getApiVersion().getOrNull();
+        for (String url : hostPool.getUrls()) {
+            boolean healthy;
+            try {
+                getDockerClient(getDockerHostUrl(url), certPath, apiVersion).pingCmd().exec();
+                healthy = true;
+            } catch (Exception e) {
+                logger.info("Health check of Docker host " + url + " failed.", e);
+                healthy = false;
+            }
+            if (healthy != hostPool.isHealthy(url)) {
+                logger.lifecycle("Docker host " + url + " is " + (healthy ? "available again." : "unavailable."));
+            }
+            hostPool.markHealthy(url, healthy);
+        }
+    }
+
+    private synchronized DockerCircuitBreaker getCircuitBreaker() {
+        if (circuitBreaker == null && getParameters().getCircuitBreakerFailureThreshold().isPresent()) {
+            circuitBreaker = new DockerCircuitBreaker(getParameters().getCircuitBreakerFailureThreshold().get(), getParameters().getCircuitBreakerResetTimeout().getOrElse(Duration.ofSeconds(30)));
+        }
+        return circuitBreaker;
+    }
+
+    private synchronized DockerOperationLimiter getOperationLimiter() {
+        if (operationLimiter == null) {
+            Params params = getParameters();
+            Map<DockerOperationCategory, Integer> limits = new EnumMap<>(DockerOperationCategory.class);
+            if (params.getMaxParallelBuilds().isPresent()) {
+                limits.put(DockerOperationCategory.BUILD, params.getMaxParallelBuilds().get());
+            }
+            if (params.getMaxParallelTransfers().isPresent()) {
+                limits.put(DockerOperationCategory.TRANSFER, params.getMaxParallelTransfers().get());
+            }
+            if (params.getMaxParallelOperations().isPresent()) {
+                limits.put(DockerOperationCategory.STANDARD, params.getMaxParallelOperations().get());
+            }
+            operationLimiter = new DockerOperationLimiter(limits);
+        }
+        return operationLimiter;
+    }
+
     private DockerClient createDefaultDockerClient(DefaultDockerClientConfig config) {
-        return dockerClients.computeIfAbsent(config, i -> {
-            ApacheDockerHttpClient dockerClient = new ApacheDockerHttpClient.Builder()
-                    .dockerHost(config.getDockerHost())
-                    .sslConfig(config.getSSLConfig())
-                    .build();
-            return DockerClientImpl.getInstance(
-                    config,
-                    dockerClient
-            );
+        return dockerClients.computeIfAbsent(config, i -> DockerClientImpl.getInstance(
+                config,
+                createDockerHttpClient(config)
+        ));
+    }
+
+    private DockerHttpClient createDockerHttpClient(DefaultDockerClientConfig config) {
+        DockerHttpClient dockerHttpClient = createPooledDockerHttpClient(config);
+        if (getParameters().getMetricsEnabled().getOrElse(false)) {
+            return new InstrumentingDockerHttpClient(dockerHttpClient, metrics);
+        }
+        return dockerHttpClient;
+    }
+
+    private DockerHttpClient createPooledDockerHttpClient(DefaultDockerClientConfig config) {
+        Params params = getParameters();
+        DockerHttpTransport transport = params.getTransport().getOrElse(DockerHttpTransport.APACHE_HTTP_CLIENT5);
+        Integer maxConnections = params.getMaxConnections().getOrNull();
+        Duration connectionTimeout = params.getConnectionTimeout().getOrNull();
+        Duration responseTimeout = params.getResponseTimeout().getOrNull();
+        Duration idleConnectionTimeout = params.getIdleConnectionTimeout().getOrNull();
+        Supplier<DockerHttpClient> factory = () -> createTransportDockerHttpClient(config, transport, maxConnections, connectionTimeout, responseTimeout);
+
+        if (params.getReuseClientsAcrossBuilds().getOrElse(false)) {
+            Duration idleTimeout = idleConnectionTimeout != null ? idleConnectionTimeout : DEFAULT_SHARED_IDLE_CONNECTION_TIMEOUT;
+            List<Object> key = Arrays.asList(config, transport, maxConnections, connectionTimeout, responseTimeout, idleTimeout);
+            return SharedDockerHttpClients.get(key, factory, idleTimeout);
+        }
+
+        if (idleConnectionTimeout == null) {
+            return factory.get();
+        }
+
+        IdleEvictingDockerHttpClient dockerHttpClient = new IdleEvictingDockerHttpClient(factory, idleConnectionTimeout);
+        evictingHttpClients.add(dockerHttpClient);
+        scheduleIdleEviction(idleConnectionTimeout);
+        return dockerHttpClient;
+    }
+
+    private static DockerHttpClient createTransportDockerHttpClient(DefaultDockerClientConfig config, DockerHttpTransport transport, @Nullable Integer maxConnections, @Nullable Duration connectionTimeout, @Nullable Duration responseTimeout) {
+        switch (transport) {
+            case APACHE_HTTP_CLIENT5:
+                return createApacheDockerHttpClient(config, maxConnections, connectionTimeout, responseTimeout);
+            case ZERODEP:
+                return createZerodepDockerHttpClient(config, maxConnections, connectionTimeout, responseTimeout);
+            default:
+                throw new IllegalArgumentException("Unsupported Docker HTTP transport " + transport);
+        }
+    }
+
+    private static DockerHttpClient createApacheDockerHttpClient(DefaultDockerClientConfig config, @Nullable Integer maxConnections, @Nullable Duration connectionTimeout, @Nullable Duration responseTimeout) {
+        ApacheDockerHttpClient.Builder builder = new ApacheDockerHttpClient.Builder()
+                .dockerHost(config.getDockerHost())
+                .sslConfig(config.getSSLConfig());
+
+        if (maxConnections != null) {
+            builder.maxConnections(maxConnections);
+        }
+
+        if (connectionTimeout != null) {
+            builder.connectionTimeout(connectionTimeout);
+        }
+
+        if (responseTimeout != null) {
+            builder.responseTimeout(responseTimeout);
+        }
+
+        return builder.build();
+    }
+
+    private static DockerHttpClient createZerodepDockerHttpClient(DefaultDockerClientConfig config, @Nullable Integer maxConnections, @Nullable Duration connectionTimeout, @Nullable Duration responseTimeout) {
+        ZerodepDockerHttpClient.Builder builder = new ZerodepDockerHttpClient.Builder()
+                .dockerHost(config.getDockerHost())
+                .sslConfig(config.getSSLConfig());
+
+        if (maxConnections != null) {
+            builder.maxConnections(maxConnections);
+        }
+
+        if (connectionTimeout != null) {
+            builder.connectionTimeout(connectionTimeout);
+        }
+
+        if (responseTimeout != null) {
+            builder.responseTimeout(responseTimeout);
+        }
+
+        return builder.build();
+    }
+
+    private synchronized void scheduleIdleEviction(Duration idleConnectionTimeout) {
+        if (idleEvictionExecutor != null) {
+            return;
+        }
+
+        idleEvictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "docker-idle-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
         });
+        long period = Math.max(TimeUnit.SECONDS.toMillis(1), idleConnectionTimeout.toMillis() / 2);
+        idleEvictionExecutor.scheduleWithFixedDelay(() -> evictingHttpClients.forEach(IdleEvictingDockerHttpClient::evictIfIdle), period, period, TimeUnit.MILLISECONDS);
     }
 
     /**
      * Checks if Docker host URL starts with http(s) and if so, converts it to tcp
      * which is accepted by docker-java library.
      *
-     * @param urlProvider Docker client url
+     * @param dockerUrl Docker client url
      * @return Docker host URL as string
      */
-    private String getDockerHostUrl(Provider<String> urlProvider) {
-        String url = urlProvider.orElse(getParameters().getUrl()).map(String::toLowerCase).get();
+    private static String getDockerHostUrl(String dockerUrl) {
+        String url = dockerUrl.toLowerCase();
         return url.startsWith("http") ? "tcp" + url.substring(url.indexOf(':')) : url;
     }
 
     @Override
     public void close() throws Exception {
+        // the warm-up must not create a client once the clients have been closed
+        if (warmUpThread != null) {
+            warmUpThread.interrupt();
+            warmUpThread.join();
+        }
+
+        synchronized (this) {
+            if (idleEvictionExecutor != null) {
+                idleEvictionExecutor.shutdownNow();
+            }
+            if (healthCheckExecutor != null) {
+                healthCheckExecutor.shutdownNow();
+            }
+        }
+
+        if (getParameters().getReuseClientsAcrossBuilds().getOrElse(false)) {
+            SharedDockerHttpClients.evictIdle();
+        }
+
         IOException throwable = null;
+        try {
+            reportMetrics();
+        } catch (IOException e) {
+            throwable = e;
+        }
+
         for (DockerClient dockerClient : dockerClients.values()) {
             try {
                 dockerClient.close();
@@ -145,4 +666,17 @@ public abstract class DockerClientService implements BuildService<DockerClientSe
             throw throwable;
         }
     }
+
+    private void reportMetrics() throws IOException {
+        if (!getParameters().getMetricsEnabled().getOrElse(false) || metrics.isEmpty()) {
+            return;
+        }
+
+        metrics.summary().forEach(logger::lifecycle);
+        if (getParameters().getMetricsReportDirectory().isPresent()) {
+            File report = getParameters().getMetricsReportDirectory().file("remote-api-metrics.json").get().getAsFile();
+            metrics.writeReport(report);
+            logger.lifecycle("Docker remote API metrics report written to " + report);
+        }
+    }
 }
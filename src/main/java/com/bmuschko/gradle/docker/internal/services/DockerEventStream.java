@@ -0,0 +1,135 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventType;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * A single subscription to the events of a Docker daemon, shared by any number of listeners.
+ * <p>
+ * Events are dispatched on the thread reading the stream, which never blocks: every listener receives the events
+ * matching its filter in a bounded queue, and the oldest event is dropped if the queue is full.
+ */
+final class DockerEventStream implements AutoCloseable {
+    private static final Logger logger = Logging.getLogger(DockerEventStream.class);
+
+    private static final long START_TIMEOUT_MILLIS = 5000;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final ResultCallback.Adapter<Event> callback;
+    private volatile boolean active = true;
+
+    DockerEventStream(DockerClient dockerClient) {
+        callback = new ResultCallback.Adapter<Event>() {
+            @Override
+            public void onStart(Closeable stream) {
+                super.onStart(stream);
+                started.countDown();
+            }
+
+            @Override
+            public void onNext(Event event) {
+                for (Listener listener : listeners) {
+                    listener.offer(event);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                if (active) {
+                    logger.info("Docker event stream failed: " + throwable.getMessage());
+                }
+                stop();
+                super.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                stop();
+                super.onComplete();
+            }
+        };
+        dockerClient.eventsCmd().withEventTypeFilter(EventType.CONTAINER, EventType.IMAGE).exec(callback);
+    }
+
+    /**
+     * Registers a listener for the events matching the filter.
+     * Waits until the daemon accepted the subscription so that no event occurring afterwards is missed.
+     */
+    DockerEventsService.Subscription subscribe(Predicate<Event> filter, int capacity) throws InterruptedException {
+        Listener listener = new Listener(filter, capacity);
+        listeners.add(listener);
+        if (!started.await(START_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            logger.info("Docker event stream did not start within " + START_TIMEOUT_MILLIS + " ms.");
+        }
+        return listener;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    int getListenerCount() {
+        return listeners.size();
+    }
+
+    private void stop() {
+        active = false;
+        started.countDown();
+    }
+
+    @Override
+    public void close() throws IOException {
+        stop();
+        listeners.clear();
+        callback.close();
+    }
+
+    private final class Listener implements DockerEventsService.Subscription {
+        private final Predicate<Event> filter;
+        private final BlockingQueue<Event> queue;
+
+        private Listener(Predicate<Event> filter, int capacity) {
+            this.filter = filter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void offer(Event event) {
+            if (!filter.test(event)) {
+                return;
+            }
+            while (!queue.offer(event)) {
+                queue.poll();
+            }
+        }
+
+        @Override
+        public Event poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return queue.poll(timeout, unit);
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public void close() {
+            listeners.remove(this);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.model.Event;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Build service sharing the event stream of a Docker daemon between all tasks waiting for containers or images.
+ * <p>
+ * The stream of container and image events is opened once per Docker client on the first subscription and kept open
+ * until the end of the build. If the stream fails, the next subscription opens a new one.
+ */
+public abstract class DockerEventsService implements BuildService<BuildServiceParameters.None>, AutoCloseable {
+    private static final Logger logger = Logging.getLogger(DockerEventsService.class);
+
+    /**
+     * The number of events buffered per subscription by default.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Map<DockerClient, DockerEventStream> streams = new ConcurrentHashMap<>();
+
+    /**
+     * The events matching a filter received from the daemon's event stream, which has to be closed once no longer needed.
+     */
+    public interface Subscription extends AutoCloseable {
+        /**
+         * Waits for the next event.
+         *
+         * @param timeout How long to wait
+         * @param unit The unit of the timeout
+         * @return The event or null if no event arrived in time
+         * @throws InterruptedException if interrupted while waiting
+         */
+        @Nullable
+        Event poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+        /**
+         * Indicates whether events are still received. Once the stream failed, the state has to be queried instead.
+         *
+         * @return true if the stream is still open
+         */
+        boolean isActive();
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Subscribes to the events of the daemon the given client is connected to.
+     * Returns once the daemon accepted the subscription, so that no event occurring afterwards is missed.
+     *
+     * @param dockerClient The Docker client
+     * @param filter The filter selecting the events of interest
+     * @return The subscription
+     * @throws InterruptedException if interrupted while waiting for the stream to start
+     */
+    public Subscription subscribe(DockerClient dockerClient, Predicate<Event> filter) throws InterruptedException {
+        return subscribe(dockerClient, filter, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Subscribes to the events of the daemon the given client is connected to.
+     * If more than the given number of events are not consumed yet, the oldest event is dropped.
+     *
+     * @param dockerClient The Docker client
+     * @param filter The filter selecting the events of interest
+     * @param capacity The maximum number of buffered events
+     * @return The subscription
+     * @throws InterruptedException if interrupted while waiting for the stream to start
+     */
+    public Subscription subscribe(DockerClient dockerClient, Predicate<Event> filter, int capacity) throws InterruptedException {
+        DockerEventStream stream = streams.compute(dockerClient, (client, existing) -> existing != null && existing.isActive() ? existing : new DockerEventStream(client));
+        return stream.subscribe(filter, capacity);
+    }
+
+    @Override
+    public void close() {
+        for (DockerEventStream stream : streams.values()) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                logger.info("Failed to close Docker event stream.", e);
+            }
+        }
+        streams.clear();
+    }
+}
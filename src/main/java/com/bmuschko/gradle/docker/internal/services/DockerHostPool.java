@@ -0,0 +1,172 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import com.bmuschko.gradle.docker.DockerHostSelectionStrategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Distributes Docker operations across a pool of hosts.
+ * <p>
+ * Operations are pinned to a host by affinity keys, e.g. image names or container IDs. The first operation using a key
+ * selects a host according to the strategy, all later operations using the key go to the same host. Hosts marked
+ * unhealthy are skipped for new keys until they are marked healthy again. If no host is healthy, all hosts are considered.
+ */
+final class DockerHostPool {
+
+    private final Map<String, HostState> hosts = new LinkedHashMap<>();
+    private final DockerHostSelectionStrategy strategy;
+    private final Map<String, String> affinities = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    DockerHostPool(List<String> urls, DockerHostSelectionStrategy strategy) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("Docker host pool requires at least one URL");
+        }
+        for (String url : urls) {
+            hosts.put(url, new HostState());
+        }
+        this.strategy = strategy;
+    }
+
+    List<String> getUrls() {
+        return new ArrayList<>(hosts.keySet());
+    }
+
+    /**
+     * Selects a host for an operation and binds all given affinity keys to it.
+     *
+     * @param affinityKeys The keys identifying the resources the operation works on
+     * @return The lease to be closed once the operation finished
+     */
+    synchronized Lease acquire(Collection<String> affinityKeys) {
+        String url = findBoundHost(affinityKeys);
+        if (url == null) {
+            url = select(affinityKeys);
+        }
+        for (String key : affinityKeys) {
+            affinities.putIfAbsent(key, url);
+        }
+        HostState state = hosts.get(url);
+        state.inFlight++;
+        return new Lease(url, state);
+    }
+
+    /**
+     * Returns the host any of the given affinity keys is bound to.
+     *
+     * @param affinityKeys The affinity keys
+     * @return The host URL or null if none of the keys is bound
+     */
+    String findBoundHost(Collection<String> affinityKeys) {
+        for (String key : affinityKeys) {
+            String url = affinities.get(key);
+            if (url != null) {
+                return url;
+            }
+        }
+        return null;
+    }
+
+    void bind(String affinityKey, String url) {
+        affinities.put(affinityKey, url);
+    }
+
+    synchronized void markHealthy(String url, boolean healthy) {
+        HostState state = hosts.get(url);
+        if (state != null) {
+            state.healthy = healthy;
+        }
+    }
+
+    synchronized boolean isHealthy(String url) {
+        HostState state = hosts.get(url);
+        return state != null && state.healthy;
+    }
+
+    synchronized int getInFlight(String url) {
+        return hosts.get(url).inFlight;
+    }
+
+    private String select(Collection<String> affinityKeys) {
+        List<String> all = new ArrayList<>(hosts.keySet());
+        List<String> candidates = new ArrayList<>();
+        for (Map.Entry<String, HostState> entry : hosts.entrySet()) {
+            if (entry.getValue().healthy) {
+                candidates.add(entry.getKey());
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = all;
+        }
+
+        switch (strategy) {
+            case LEAST_IN_FLIGHT:
+                String least = candidates.get(0);
+                for (String url : candidates) {
+                    if (hosts.get(url).inFlight < hosts.get(least).inFlight) {
+                        least = url;
+                    }
+                }
+                return least;
+            case STICKY:
+                if (!affinityKeys.isEmpty()) {
+                    // Hash against all hosts so that a temporarily unhealthy host does not reshuffle the other keys
+                    int start = Math.floorMod(affinityKeys.iterator().next().hashCode(), all.size());
+                    for (int i = 0; i < all.size(); i++) {
+                        String url = all.get((start + i) % all.size());
+                        if (candidates.contains(url)) {
+                            return url;
+                        }
+                    }
+                }
+                return roundRobin(candidates);
+            case ROUND_ROBIN:
+            default:
+                return roundRobin(candidates);
+        }
+    }
+
+    private String roundRobin(List<String> candidates) {
+        return candidates.get(Math.floorMod(nextIndex.getAndIncrement(), candidates.size()));
+    }
+
+    private static final class HostState {
+        private int inFlight;
+        private boolean healthy = true;
+    }
+
+    /**
+     * The selection of a host for a single operation.
+     */
+    final class Lease implements DockerClientService.HostLease {
+        private final String url;
+        private final HostState state;
+        private boolean released;
+
+        private Lease(String url, HostState state) {
+            this.url = url;
+            this.state = state;
+        }
+
+        @Override
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public void close() {
+            synchronized (DockerHostPool.this) {
+                if (!released) {
+                    released = true;
+                    state.inFlight--;
+                }
+            }
+        }
+    }
+}
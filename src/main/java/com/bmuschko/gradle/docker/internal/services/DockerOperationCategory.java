@@ -0,0 +1,21 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+/**
+ * The categories of Docker remote API operations that are limited independently by {@link DockerClientService}.
+ */
+public enum DockerOperationCategory {
+    /**
+     * Image builds and commits, which are CPU and disk intensive on the daemon.
+     */
+    BUILD,
+
+    /**
+     * Image pushes, pulls, saves and loads, which stream large amounts of data.
+     */
+    TRANSFER,
+
+    /**
+     * All other operations, e.g. container lifecycle and inspect calls.
+     */
+    STANDARD
+}
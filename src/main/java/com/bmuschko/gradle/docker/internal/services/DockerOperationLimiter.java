@@ -0,0 +1,46 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of concurrently running Docker operations per {@link DockerOperationCategory}.
+ * <p>
+ * Categories without a configured limit are not restricted.
+ */
+final class DockerOperationLimiter {
+
+    private static final DockerClientService.Permit NO_OP_PERMIT = () -> { };
+
+    private final Map<DockerOperationCategory, Semaphore> semaphores = new EnumMap<>(DockerOperationCategory.class);
+
+    DockerOperationLimiter(Map<DockerOperationCategory, Integer> limits) {
+        limits.forEach((category, limit) -> {
+            if (limit < 1) {
+                throw new IllegalArgumentException("Maximum number of parallel " + category.name().toLowerCase() + " operations must be at least 1 but was " + limit);
+            }
+            semaphores.put(category, new Semaphore(limit, true));
+        });
+    }
+
+    DockerClientService.Permit acquire(DockerOperationCategory category) throws InterruptedException {
+        Semaphore semaphore = semaphores.get(category);
+        if (semaphore == null) {
+            return NO_OP_PERMIT;
+        }
+
+        semaphore.acquire();
+        return new DockerClientService.Permit() {
+            private boolean released;
+
+            @Override
+            public synchronized void close() {
+                if (!released) {
+                    released = true;
+                    semaphore.release();
+                }
+            }
+        };
+    }
+}
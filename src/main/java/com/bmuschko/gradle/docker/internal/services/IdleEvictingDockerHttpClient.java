@@ -0,0 +1,139 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A {@link DockerHttpClient} that releases the connection pool of its delegate once it has been idle for a given time.
+ * <p>
+ * The delegate is created lazily on the next request after being evicted. A delegate is never evicted while a request
+ * or a streamed response is still in flight.
+ */
+final class IdleEvictingDockerHttpClient implements DockerHttpClient {
+
+    private static final Logger logger = Logging.getLogger(IdleEvictingDockerHttpClient.class);
+
+    private final Supplier<DockerHttpClient> factory;
+    private final long idleTimeoutNanos;
+
+    private DockerHttpClient delegate;
+    private int inFlight;
+    private long lastUsedNanos = System.nanoTime();
+
+    IdleEvictingDockerHttpClient(Supplier<DockerHttpClient> factory, Duration idleTimeout) {
+        this.factory = factory;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    @Override
+    public Response execute(Request request) {
+        DockerHttpClient client = acquire();
+        try {
+            return new ReleasingResponse(client.execute(request));
+        } catch (RuntimeException | Error e) {
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the delegate if no request is in flight and it has not been used for longer than the idle timeout.
+     *
+     * @return {@code true} if the delegate was evicted
+     */
+    boolean evictIfIdle() {
+        DockerHttpClient evicted;
+        synchronized (this) {
+            if (delegate == null || inFlight > 0 || System.nanoTime() - lastUsedNanos < idleTimeoutNanos) {
+                return false;
+            }
+            evicted = delegate;
+            delegate = null;
+        }
+        closeQuietly(evicted);
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        DockerHttpClient closed;
+        synchronized (this) {
+            closed = delegate;
+            delegate = null;
+        }
+        if (closed != null) {
+            closed.close();
+        }
+    }
+
+    private synchronized DockerHttpClient acquire() {
+        if (delegate == null) {
+            delegate = factory.get();
+        }
+        inFlight++;
+        lastUsedNanos = System.nanoTime();
+        return delegate;
+    }
+
+    private synchronized void release() {
+        inFlight--;
+        lastUsedNanos = System.nanoTime();
+    }
+
+    private static void closeQuietly(DockerHttpClient client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close idle Docker HTTP client", e);
+        }
+    }
+
+    private final class ReleasingResponse implements Response {
+        private final Response response;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingResponse(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return response.getHeader(name);
+        }
+
+        @Override
+        public InputStream getBody() {
+            return response.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link DockerHttpClient} that records latency, transferred bytes, errors and in-flight requests per endpoint.
+ * <p>
+ * A request is considered finished once its response has been closed, so streamed responses are measured end to end.
+ * Responses with a status code of 400 or higher count as errors.
+ */
+final class InstrumentingDockerHttpClient implements DockerHttpClient {
+
+    private final DockerHttpClient delegate;
+    private final DockerApiMetrics metrics;
+
+    InstrumentingDockerHttpClient(DockerHttpClient delegate, DockerApiMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response execute(Request request) {
+        DockerApiMetrics.EndpointMetrics endpoint = metrics.endpoint(request.method(), request.path());
+        long startNanos = System.nanoTime();
+        metrics.requestStarted(endpoint);
+
+        Request countedRequest = request;
+        byte[] bodyBytes = request.bodyBytes();
+        if (bodyBytes != null) {
+            endpoint.addBytesOut(bodyBytes.length);
+        } else if (request.body() != null) {
+            countedRequest = Request.builder().from(request).body(new CountingInputStream(request.body(), endpoint, false)).build();
+        }
+
+        Response response;
+        try {
+            response = delegate.execute(countedRequest);
+        } catch (RuntimeException | Error e) {
+            metrics.requestFinished(endpoint, System.nanoTime() - startNanos, true);
+            throw e;
+        }
+        return new InstrumentedResponse(response, endpoint, startNanos);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    private final class InstrumentedResponse implements Response {
+        private final Response response;
+        private final DockerApiMetrics.EndpointMetrics endpoint;
+        private final long startNanos;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private InputStream body;
+
+        private InstrumentedResponse(Response response, DockerApiMetrics.EndpointMetrics endpoint, long startNanos) {
+            this.response = response;
+            this.endpoint = endpoint;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return response.getHeader(name);
+        }
+
+        @Override
+        public synchronized InputStream getBody() {
+            if (body == null) {
+                InputStream responseBody = response.getBody();
+                body = responseBody != null ? new CountingInputStream(responseBody, endpoint, true) : null;
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (finished.compareAndSet(false, true)) {
+                    metrics.requestFinished(endpoint, System.nanoTime() - startNanos, response.getStatusCode() >= 400);
+                }
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final DockerApiMetrics.EndpointMetrics endpoint;
+        private final boolean inbound;
+
+        private CountingInputStream(InputStream in, DockerApiMetrics.EndpointMetrics endpoint, boolean inbound) {
+            super(in);
+            this.endpoint = endpoint;
+            this.inbound = inbound;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long bytes) {
+            if (inbound) {
+                endpoint.addBytesIn(bytes);
+            } else {
+                endpoint.addBytesOut(bytes);
+            }
+        }
+    }
+}
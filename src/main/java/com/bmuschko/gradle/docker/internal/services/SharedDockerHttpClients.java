@@ -0,0 +1,64 @@
+package com.bmuschko.gradle.docker.internal.services;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps Docker HTTP clients alive across builds running in the same Gradle daemon.
+ * <p>
+ * The cache lives as long as the plugin's class loader, which Gradle reuses between builds as long as the build script
+ * classpath does not change. Connection pools which have been idle for the given timeout are released whenever a client
+ * is requested and at the end of every build, and are re-established on the next request. There is no eviction thread,
+ * as a thread would keep the class loader and its connection pools alive once Gradle replaced the class loader. Clients
+ * handed out by this cache ignore {@code close()} so that the end of a build does not tear them down.
+ */
+final class SharedDockerHttpClients {
+
+    private static final Map<List<Object>, IdleEvictingDockerHttpClient> clients = new ConcurrentHashMap<>();
+
+    private SharedDockerHttpClients() { }
+
+    /**
+     * Returns the shared client for the given key, creating it if necessary.
+     *
+     * @param key All settings the client is created from
+     * @param factory Creates the underlying transport client
+     * @param idleTimeout The time after which the connection pool of an unused client is released
+     * @return The shared client
+     */
+    static DockerHttpClient get(List<Object> key, Supplier<DockerHttpClient> factory, Duration idleTimeout) {
+        evictIdle();
+        IdleEvictingDockerHttpClient client = clients.computeIfAbsent(key, k -> new IdleEvictingDockerHttpClient(factory, idleTimeout));
+        return new NonClosingDockerHttpClient(client);
+    }
+
+    /**
+     * Releases the connection pools of all clients which have been idle for longer than their idle timeout.
+     */
+    static void evictIdle() {
+        clients.values().forEach(IdleEvictingDockerHttpClient::evictIfIdle);
+    }
+
+    private static final class NonClosingDockerHttpClient implements DockerHttpClient {
+        private final DockerHttpClient delegate;
+
+        private NonClosingDockerHttpClient(DockerHttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request) {
+            return delegate.execute(request);
+        }
+
+        @Override
+        public void close() {
+            // Shared across builds, released by idle eviction only
+        }
+    }
+}
@@ -15,8 +15,12 @@
  */
 package com.bmuschko.gradle.docker.tasks;
 
+import com.bmuschko.gradle.docker.domain.RetryPolicy;
 import com.bmuschko.gradle.docker.internal.RegistryAuthLocator;
+import com.bmuschko.gradle.docker.internal.RetryUtils;
 import com.bmuschko.gradle.docker.internal.services.DockerClientService;
+import com.bmuschko.gradle.docker.internal.services.DockerEventsService;
+import com.bmuschko.gradle.docker.internal.services.DockerOperationCategory;
 import com.github.dockerjava.api.DockerClient;
 import org.gradle.api.Action;
 import org.gradle.api.DefaultTask;
@@ -30,6 +34,10 @@ import org.gradle.api.tasks.PathSensitive;
 import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+
 public abstract class AbstractDockerRemoteApiTask extends DefaultTask {
 
     /**
@@ -73,6 +81,34 @@ public abstract class AbstractDockerRemoteApiTask extends DefaultTask {
 
     private final Property<DockerClientService> dockerClientService = getProject().getObjects().property(DockerClientService.class);
 
+    /**
+     * The build service sharing the event streams of the Docker daemons.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final Property<DockerEventsService> getDockerEventsService() {
+        return dockerEventsService;
+    }
+
+    private final Property<DockerEventsService> dockerEventsService = getProject().getObjects().property(DockerEventsService.class);
+
+    /**
+     * The policy for retrying the operation after a transient error. Only applies to operations that can safely be repeated.
+     * <p>
+     * Defaults to the retry policy of the extension.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    private final RetryPolicy retryPolicy = getProject().getObjects().newInstance(RetryPolicy.class, getProject().getObjects());
+
+    private String selectedUrl;
+
     private Action<? super Throwable> errorHandler;
     private Action nextHandler;
     private Runnable completeHandler;
@@ -81,7 +117,7 @@ public abstract class AbstractDockerRemoteApiTask extends DefaultTask {
     public void start() throws Exception {
         boolean commandFailed = false;
         try {
-            runRemoteCommand();
+            runRemoteCommandWithRetries();
         } catch (Exception possibleException) {
             commandFailed = true;
             if (errorHandler != null) {
@@ -96,6 +132,104 @@ public abstract class AbstractDockerRemoteApiTask extends DefaultTask {
         }
     }
 
+    private void runRemoteCommandWithRetries() throws Exception {
+        DockerClientService service = dockerClientService.getOrNull();
+        if (service == null) {
+            runRemoteCommand();
+            return;
+        }
+
+        int maxAttempts = isIdempotent() ? Math.max(1, retryPolicy.getMaxAttempts().get()) : 1;
+        for (int attempt = 1; ; attempt++) {
+            service.checkDaemonAvailable();
+            selectedUrl = null;
+            try {
+                // wait for the permit before leasing a host, so that waiting tasks do not count as in flight on the host
+                DockerClientService.Permit permit = service.acquirePermit(getOperationCategory());
+                try (DockerClientService.HostLease lease = url.isPresent() ? null : service.acquireHost(getHostAffinityKeys())) {
+                    selectedUrl = lease != null ? lease.getUrl() : null;
+                    runRemoteCommand();
+                } finally {
+                    permit.close();
+                }
+                service.recordOperationResult(null);
+                return;
+            } catch (Exception e) {
+                service.recordOperationResult(e);
+                if (selectedUrl != null && RetryUtils.isTransient(e)) {
+                    service.markHostUnavailable(selectedUrl);
+                }
+                if (attempt >= maxAttempts || !RetryUtils.isTransient(e)) {
+                    throw e;
+                }
+
+                long delay = RetryUtils.backoffMillis(attempt, retryPolicy.getInitialBackoff().get(), retryPolicy.getMaxBackoff().get(), retryPolicy.getJitter().get(), ThreadLocalRandom.current().nextDouble());
+                getLogger().warn("Attempt " + attempt + " of " + maxAttempts + " failed with transient error: " + e.getMessage() + ". Retrying in " + delay + " ms.");
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the operation can safely be repeated after a transient error without changing its outcome.
+     * Only idempotent operations are retried according to the {@link #getRetryPolicy() retry policy}.
+     *
+     * @return true if the operation is idempotent
+     * @since 10.1.0
+     */
+    @Internal
+    protected boolean isIdempotent() {
+        return false;
+    }
+
+    /**
+     * Returns the category used to limit the number of parallel operations against the Docker daemon.
+     * <p>
+     * Long-running operations should override this method to be limited separately from cheap calls.
+     *
+     * @return The operation category
+     * @since 10.1.0
+     */
+    @Internal
+    protected DockerOperationCategory getOperationCategory() {
+        return DockerOperationCategory.STANDARD;
+    }
+
+    /**
+     * Returns the image names and IDs, container IDs or network IDs the operation works on.
+     * If a pool of Docker hosts is configured, the operation runs on the host these resources have been used with before.
+     *
+     * @return The affinity keys
+     * @since 10.1.0
+     */
+    @Internal
+    protected Collection<String> getHostAffinityKeys() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Binds a resource created by the running operation to the pooled Docker host the operation runs on,
+     * so that later operations on the resource run on the same host.
+     *
+     * @param affinityKey The ID of the created image, container or network
+     * @since 10.1.0
+     */
+    protected void bindToSelectedHost(String affinityKey) {
+        if (selectedUrl != null) {
+            dockerClientService.get().bindToHost(affinityKey, selectedUrl);
+        }
+    }
+
+    /**
+     * Configures the policy for retrying the operation after a transient error.
+     *
+     * @param action The action against the retry policy
+     * @since 10.1.0
+     */
+    public void retryPolicy(Action<? super RetryPolicy> action) {
+        action.execute(retryPolicy);
+    }
+
     /**
      * Reacts to a potential error occurring during the operation.
      *
@@ -154,7 +288,9 @@ public abstract class AbstractDockerRemoteApiTask extends DefaultTask {
      */
     @Internal
     public DockerClient getDockerClient() {
-        return dockerClientService.get().getDockerClient(url, certPath, apiVersion);
+        DockerClientService service = dockerClientService.get();
+        String pooledUrl = selectedUrl != null ? selectedUrl : service.findHost(getHostAffinityKeys());
+        return service.getDockerClient(pooledUrl != null ? url.orElse(pooledUrl) : url, certPath, apiVersion);
     }
 
     /**
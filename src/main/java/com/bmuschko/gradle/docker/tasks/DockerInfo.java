@@ -21,6 +21,11 @@ import java.util.Arrays;
 
 public class DockerInfo extends AbstractDockerRemoteApiTask {
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Retrieving Docker info.");
@@ -18,10 +18,15 @@ package com.bmuschko.gradle.docker.tasks;
 import com.github.dockerjava.api.model.Version;
 
 public class DockerVersion extends AbstractDockerRemoteApiTask {
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Retrieving Docker version.");
-        Version version = getDockerClient().versionCmd().exec();
+        Version version = getDockerClientService().get().getDaemonVersion(getDockerClient());
         getLogger().quiet("Version          : " + version.getVersion());
         getLogger().quiet("Git Commit       : " + version.getGitCommit());
         getLogger().quiet("Go Version       : " + version.getGoVersion());
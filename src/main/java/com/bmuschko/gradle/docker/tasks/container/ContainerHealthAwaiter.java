@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container;
+
+import com.bmuschko.gradle.docker.domain.ExecProbe;
+import com.bmuschko.gradle.docker.internal.services.DockerEventsService;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.HealthState;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.model.Event;
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Waits for a container to report a healthy status.
+ * <p>
+ * Changes of the health status are received from the daemon's event stream, so the wait ends as soon as the container
+ * turns healthy. The container is inspected in increasing intervals according to the probe as well, which covers
+ * daemons not providing events and dropped events.
+ */
+final class ContainerHealthAwaiter {
+
+    static final String HEALTHY = "healthy";
+    static final String UNHEALTHY = "unhealthy";
+    static final String STOPPED = "stopped";
+
+    private static final String HEALTH_STATUS_ACTION = "health_status:";
+
+    /**
+     * Subscribes to the events of the daemon matching a filter.
+     */
+    interface EventSubscriber {
+        DockerEventsService.Subscription subscribe(Predicate<Event> filter) throws InterruptedException;
+    }
+
+    private ContainerHealthAwaiter() { }
+
+    static void awaitHealthy(DockerClient dockerClient, EventSubscriber eventSubscriber, String containerId, @Nullable ExecProbe probe, boolean failOnUnhealthy, Logger logger) throws InterruptedException {
+        final ExecProbe localProbe = probe != null ? probe : new ExecProbe(60000, 50, 2000, 2);
+        // events only carry the full ID while the container may be referenced by name or short ID
+        final String fullContainerId = dockerClient.inspectContainerCmd(containerId).exec().getId();
+
+        // subscribe before inspecting the status so that no change of the status gets lost
+        try (DockerEventsService.Subscription events = eventSubscriber.subscribe(event -> fullContainerId.equals(getContainerId(event)) && toStatus(event) != null)) {
+            if (!events.isActive()) {
+                logger.info("Events of container '" + containerId + "' are not available, polling its health status instead.");
+            }
+
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(localProbe.getPollTime());
+            long pollInterval = localProbe.getInitialPollInterval();
+            String status = inspectStatus(dockerClient, containerId);
+            while (!HEALTHY.equals(status)) {
+                if (STOPPED.equals(status)) {
+                    throw new GradleException("Container '" + containerId + "' stopped before it became healthy.");
+                }
+                if (UNHEALTHY.equals(status) && failOnUnhealthy) {
+                    throw new GradleException("Container '" + containerId + "' is unhealthy.");
+                }
+
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    throw new GradleException("Container '" + containerId + "' did not become healthy in a timely fashion: " + localProbe);
+                }
+                Event event = events.poll(Math.min(pollInterval, remaining), TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    status = toStatus(event);
+                } else {
+                    pollInterval = localProbe.nextPollInterval(pollInterval);
+                    status = inspectStatus(dockerClient, containerId);
+                }
+            }
+        }
+    }
+
+    private static String inspectStatus(DockerClient dockerClient, String containerId) {
+        InspectContainerResponse.ContainerState state = dockerClient.inspectContainerCmd(containerId).exec().getState();
+        HealthState health = state.getHealth();
+        if (health == null) {
+            throw new GradleException("Container '" + containerId + "' does not define a health check.");
+        }
+        if (!Boolean.TRUE.equals(state.getRunning())) {
+            return STOPPED;
+        }
+        return health.getStatus();
+    }
+
+    @Nullable
+    private static String getContainerId(Event event) {
+        return event.getActor() != null && event.getActor().getId() != null ? event.getActor().getId() : event.getId();
+    }
+
+    /**
+     * Maps an event of the container to its health status.
+     *
+     * @return The health status or null if the event does not change it
+     */
+    @Nullable
+    static String toStatus(Event event) {
+        String action = event.getAction() != null ? event.getAction() : event.getStatus();
+        if (action == null) {
+            return null;
+        }
+        if (action.startsWith(HEALTH_STATUS_ACTION)) {
+            return action.substring(HEALTH_STATUS_ACTION.length()).trim();
+        }
+        if (action.equals("die") || action.equals("destroy")) {
+            return STOPPED;
+        }
+        return null;
+    }
+}
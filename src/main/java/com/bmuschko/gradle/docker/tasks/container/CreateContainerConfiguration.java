@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container;
+
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+
+/**
+ * The settings a container is created with, shared by the tasks creating containers.
+ */
+interface CreateContainerConfiguration {
+
+    Property<String> getContainerName();
+
+    Property<String> getHostName();
+
+    Property<String> getIpv4Address();
+
+    ListProperty<String> getPortSpecs();
+
+    Property<String> getUser();
+
+    Property<Boolean> getStdinOpen();
+
+    Property<Boolean> getStdinOnce();
+
+    Property<Boolean> getAttachStdin();
+
+    Property<Boolean> getAttachStdout();
+
+    Property<Boolean> getAttachStderr();
+
+    MapProperty<String, String> getEnvVars();
+
+    ListProperty<String> getCmd();
+
+    ListProperty<String> getEntrypoint();
+
+    ListProperty<String> getNetworkAliases();
+
+    Property<String> getImage();
+
+    ListProperty<String> getVolumes();
+
+    Property<String> getWorkingDir();
+
+    ListProperty<DockerCreateContainer.ExposedPort> getExposedPorts();
+
+    Property<Boolean> getTty();
+
+    Property<String> getPid();
+
+    MapProperty<String, String> getLabels();
+
+    Property<String> getMacAddress();
+
+    Property<String> getPlatform();
+
+    DockerCreateContainer.HostConfig getHostConfig();
+
+    DockerCreateContainer.HealthCheckConfig getHealthCheck();
+}
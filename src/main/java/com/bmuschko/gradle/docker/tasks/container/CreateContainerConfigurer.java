@@ -0,0 +1,270 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container;
+
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Capability;
+import com.github.dockerjava.api.model.Device;
+import com.github.dockerjava.api.model.HealthCheck;
+import com.github.dockerjava.api.model.InternetProtocol;
+import com.github.dockerjava.api.model.Link;
+import com.github.dockerjava.api.model.PortBinding;
+import com.github.dockerjava.api.model.Ports;
+import com.github.dockerjava.api.model.RestartPolicy;
+import com.github.dockerjava.api.model.Volume;
+import com.github.dockerjava.api.model.VolumesFrom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a container configuration to the command creating the container.
+ */
+final class CreateContainerConfigurer {
+
+    private CreateContainerConfigurer() { }
+
+    static void configure(CreateContainerConfiguration config, CreateContainerCmd containerCommand) {
+        if (config.getContainerName().getOrNull() != null) {
+            containerCommand.withName(config.getContainerName().get());
+        }
+
+        if (config.getHostName().getOrNull() != null) {
+            containerCommand.withHostName(config.getHostName().get());
+        }
+
+        if (config.getIpv4Address().getOrNull() != null) {
+            containerCommand.withIpv4Address(config.getIpv4Address().get());
+        }
+
+        if (config.getPortSpecs().getOrNull() != null && !config.getPortSpecs().get().isEmpty()) {
+            containerCommand.withPortSpecs(config.getPortSpecs().get());
+        }
+
+        if (config.getUser().getOrNull() != null) {
+            containerCommand.withUser(config.getUser().get());
+        }
+
+        if (config.getHostConfig().getGroups().getOrNull() != null && !config.getHostConfig().getGroups().get().isEmpty()) {
+            containerCommand.getHostConfig().withGroupAdd(config.getHostConfig().getGroups().get());
+        }
+
+        if (Boolean.TRUE.equals(config.getStdinOpen().getOrNull())) {
+            containerCommand.withStdinOpen(config.getStdinOpen().get());
+        }
+
+        if (Boolean.TRUE.equals(config.getStdinOnce().getOrNull())) {
+            containerCommand.withStdInOnce(config.getStdinOnce().get());
+        }
+
+        if (config.getHostConfig().getMemory().getOrNull() != null) {
+            containerCommand.getHostConfig().withMemory(config.getHostConfig().getMemory().get());
+        }
+
+        if (config.getHostConfig().getMemorySwap().getOrNull() != null) {
+            containerCommand.getHostConfig().withMemorySwap(config.getHostConfig().getMemorySwap().get());
+        }
+
+        if (config.getHostConfig().getCpuset().getOrNull() != null) {
+            containerCommand.getHostConfig().withCpusetCpus(config.getHostConfig().getCpuset().get());
+        }
+
+        if (Boolean.TRUE.equals(config.getAttachStdin().getOrNull())) {
+            containerCommand.withAttachStdin(config.getAttachStdin().get());
+        }
+
+        if (Boolean.TRUE.equals(config.getAttachStdout().getOrNull())) {
+            containerCommand.withAttachStdout(config.getAttachStdout().get());
+        }
+
+        if (Boolean.TRUE.equals(config.getAttachStderr().getOrNull())) {
+            containerCommand.withAttachStderr(config.getAttachStderr().get());
+        }
+
+        // marshall map into list
+        if (config.getEnvVars().getOrNull() != null && !config.getEnvVars().get().isEmpty()) {
+            containerCommand.withEnv(config.getEnvVars().get().entrySet().stream().map(entry -> entry.getKey() +"="+entry.getValue()).collect(Collectors.toList()));
+        }
+
+        if (config.getCmd().getOrNull() != null && !config.getCmd().get().isEmpty()) {
+            containerCommand.withCmd(config.getCmd().get());
+        }
+
+        if (config.getEntrypoint().getOrNull() != null && !config.getEntrypoint().get().isEmpty()) {
+            containerCommand.withEntrypoint(config.getEntrypoint().get());
+        }
+
+        if (config.getHostConfig().getDns().getOrNull() != null && !config.getHostConfig().getDns().get().isEmpty()) {
+            containerCommand.getHostConfig().withDns(config.getHostConfig().getDns().get());
+        }
+
+        if (config.getHostConfig().getNetwork().getOrNull() != null) {
+            containerCommand.getHostConfig().withNetworkMode(config.getHostConfig().getNetwork().get());
+        }
+
+        if (config.getNetworkAliases().getOrNull() != null && !config.getNetworkAliases().get().isEmpty()) {
+            containerCommand.withAliases(config.getNetworkAliases().get());
+        }
+
+        if (config.getImage().getOrNull() != null) {
+            containerCommand.withImage(config.getImage().get());
+        }
+
+        if (config.getVolumes().getOrNull() != null && !config.getVolumes().get().isEmpty()) {
+            List<Volume> createdVolumes = config.getVolumes().get().stream().map(Volume::parse).collect(Collectors.toList());
+            containerCommand.withVolumes(createdVolumes);
+        }
+
+        if (config.getHostConfig().getLinks().getOrNull() != null && !config.getHostConfig().getLinks().get().isEmpty()) {
+            List<Link> createdLinks = config.getHostConfig().getLinks().get().stream().map(Link::parse).collect(Collectors.toList());
+            containerCommand.getHostConfig().withLinks(createdLinks.toArray(Link[]::new));
+        }
+
+        if (config.getHostConfig().getVolumesFrom().getOrNull() != null && !config.getHostConfig().getVolumesFrom().get().isEmpty()) {
+            List<VolumesFrom> createdVolumes = config.getHostConfig().getVolumesFrom().get().stream().map(VolumesFrom::new).collect(Collectors.toList());
+            containerCommand.getHostConfig().withVolumesFrom(createdVolumes);
+        }
+
+        if (config.getWorkingDir().getOrNull() != null) {
+            containerCommand.withWorkingDir(config.getWorkingDir().get());
+        }
+
+        if (config.getExposedPorts().getOrNull() != null && !config.getExposedPorts().get().isEmpty()) {
+            List<com.github.dockerjava.api.model.ExposedPort> allPorts = config.getExposedPorts().get().stream().flatMap(exposedPort ->
+                    exposedPort.getPorts().stream().map(port -> new com.github.dockerjava.api.model.ExposedPort(port, InternetProtocol.parse(exposedPort.getInternetProtocol().toLowerCase())))).collect(Collectors.toList());
+            containerCommand.withExposedPorts(allPorts);
+        }
+
+        if (config.getHostConfig().getPortBindings().getOrNull() != null && !config.getHostConfig().getPortBindings().get().isEmpty()) {
+            List<PortBinding> createdPortBindings = config.getHostConfig().getPortBindings().get().stream().map(PortBinding::parse).collect(Collectors.toList());
+            containerCommand.getHostConfig().withPortBindings(new Ports(createdPortBindings.toArray(PortBinding[]::new)));
+        }
+
+        if (Boolean.TRUE.equals(config.getHostConfig().getPublishAll().getOrNull())) {
+            containerCommand.getHostConfig().withPublishAllPorts(config.getHostConfig().getPublishAll().get());
+        }
+
+        if (config.getHostConfig().getBinds().getOrNull() != null && !config.getHostConfig().getBinds().get().isEmpty()) {
+            List<Bind> createdBinds = config.getHostConfig().getBinds().get().entrySet().stream().map(it -> Bind.parse(it.getKey() + ":" + it.getValue())).collect(Collectors.toList());
+            containerCommand.getHostConfig().withBinds(createdBinds);
+        }
+
+        if (config.getHostConfig().getTmpFs().getOrNull() != null && !config.getHostConfig().getTmpFs().get().isEmpty()) {
+            containerCommand.getHostConfig().withTmpFs(config.getHostConfig().getTmpFs().get());
+        }
+
+        if (config.getHostConfig().getExtraHosts().getOrNull() != null && !config.getHostConfig().getExtraHosts().get().isEmpty()) {
+            containerCommand.getHostConfig().withExtraHosts(config.getHostConfig().getExtraHosts().get().toArray(String[]::new));
+        }
+
+        if (config.getHostConfig().getLogConfig().getOrNull() != null) {
+            com.github.dockerjava.api.model.LogConfig.LoggingType type = com.github.dockerjava.api.model.LogConfig.LoggingType.fromValue(config.getHostConfig().getLogConfig().get().getType());
+            com.github.dockerjava.api.model.LogConfig logConfig = new com.github.dockerjava.api.model.LogConfig(type, config.getHostConfig().getLogConfig().get().getConfig());
+            containerCommand.getHostConfig().withLogConfig(logConfig);
+        }
+
+        if (Boolean.TRUE.equals(config.getHostConfig().getPrivileged().getOrNull())) {
+            containerCommand.getHostConfig().withPrivileged(config.getHostConfig().getPrivileged().get());
+        }
+
+        if (config.getHostConfig().getRestartPolicy().getOrNull() != null) {
+            containerCommand.getHostConfig().withRestartPolicy(RestartPolicy.parse(config.getHostConfig().getRestartPolicy().get()));
+        }
+
+        if (config.getHostConfig().getCapAdd().getOrNull() != null && !config.getHostConfig().getCapAdd().get().isEmpty()) {
+            Capability[] capabilities = config.getHostConfig().getCapAdd().get().stream().map(Capability::valueOf).toArray(Capability[]::new);
+            containerCommand.getHostConfig().withCapAdd(capabilities);
+        }
+
+        if (config.getHostConfig().getCapDrop().getOrNull() != null && !config.getHostConfig().getCapDrop().get().isEmpty()) {
+            Capability[] capabilities = config.getHostConfig().getCapDrop().get().stream().map(Capability::valueOf).toArray(Capability[]::new);
+            containerCommand.getHostConfig().withCapDrop(capabilities);
+        }
+
+        if (config.getPid().getOrNull() != null) {
+            containerCommand.getHostConfig().withPidMode(config.getPid().get());
+        }
+
+        if (config.getHostConfig().getDevices().getOrNull() != null && !config.getHostConfig().getDevices().get().isEmpty()) {
+            List<Device> createdDevices = config.getHostConfig().getDevices().get().stream().map(Device::parse).collect(Collectors.toList());
+            containerCommand.getHostConfig().withDevices(createdDevices);
+        }
+
+        if (Boolean.TRUE.equals(config.getTty().getOrNull())) {
+            containerCommand.withTty(config.getTty().get());
+        }
+
+        if (config.getHostConfig().getShmSize().getOrNull() != null) { // 0 is valid input
+            containerCommand.getHostConfig().withShmSize(config.getHostConfig().getShmSize().get());
+        }
+
+        if (config.getHostConfig().getAutoRemove().getOrNull() != null) {
+            containerCommand.getHostConfig().withAutoRemove(config.getHostConfig().getAutoRemove().get());
+        }
+
+        if (config.getLabels().getOrNull() != null && !config.getLabels().get().isEmpty()) {
+            containerCommand.withLabels(config.getLabels().get());
+        }
+
+        if (config.getMacAddress().getOrNull() != null) {
+            containerCommand.withMacAddress(config.getMacAddress().get());
+        }
+
+        if (config.getPlatform().getOrNull() != null && !config.getPlatform().get().isEmpty()) {
+            containerCommand.withPlatform(config.getPlatform().get());
+        }
+
+        if (config.getHostConfig().getIpcMode().getOrNull() != null) {
+            containerCommand.getHostConfig().withIpcMode(config.getHostConfig().getIpcMode().get());
+        }
+
+        if (config.getHostConfig().getSysctls().getOrNull() != null && !config.getHostConfig().getSysctls().get().isEmpty()) {
+            containerCommand.getHostConfig().withSysctls(config.getHostConfig().getSysctls().get());
+        }
+
+        if (config.getHealthCheck().getInterval().getOrNull() != null) {
+            getOrCreateHealthCheck(containerCommand).withInterval(config.getHealthCheck().getInterval().get());
+        }
+
+        if (config.getHealthCheck().getTimeout().getOrNull() != null) {
+            getOrCreateHealthCheck(containerCommand).withTimeout(config.getHealthCheck().getTimeout().get());
+        }
+
+        if (config.getHealthCheck().getCmd().getOrNull() != null && !config.getHealthCheck().getCmd().get().isEmpty()) {
+            String command = config.getHealthCheck().getCmd().get().size() == 1 ? "CMD-SHELL" : "CMD";
+            List<String> test = new ArrayList<>(List.of(command));
+            test.addAll(config.getHealthCheck().getCmd().get());
+            getOrCreateHealthCheck(containerCommand).withTest(test);
+        }
+
+        if (config.getHealthCheck().getRetries().getOrNull() != null) {
+            getOrCreateHealthCheck(containerCommand).withRetries(config.getHealthCheck().getRetries().get());
+        }
+
+        if (config.getHealthCheck().getStartPeriod().getOrNull() != null) {
+            getOrCreateHealthCheck(containerCommand).withStartPeriod(config.getHealthCheck().getStartPeriod().get());
+        }
+    }
+
+    private static HealthCheck getOrCreateHealthCheck(CreateContainerCmd containerCommand) {
+        if (containerCommand.getHealthcheck() == null) {
+            containerCommand.withHealthcheck(new HealthCheck());
+        }
+        return containerCommand.getHealthcheck();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container;
+
+import com.bmuschko.gradle.docker.domain.ExecProbe;
+import com.github.dockerjava.api.DockerClient;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.Optional;
+
+/**
+ * Blocks until the health check of a running container reports it as healthy.
+ * <p>
+ * The task reacts to the {@code health_status} events of the container received through the event stream shared by
+ * all tasks of the build, and therefore finishes as soon as the container is ready. If the daemon does not provide
+ * the events, the container is inspected in increasing intervals according to the {@link #getHealthProbe() health
+ * probe}. The task fails if the container has no health check, stops, or does not become healthy within the poll
+ * time of the probe.
+ *
+ * @since 10.1.0
+ */
+public class DockerAwaitHealthy extends DockerExistingContainer {
+
+    /**
+     * Whether the task fails as soon as the container is reported as unhealthy.
+     * Otherwise the task keeps waiting for the container to recover until the poll time has passed.
+     * <p>
+     * Defaults to true.
+     */
+    @Input
+    public final Property<Boolean> getFailOnUnhealthy() {
+        return failOnUnhealthy;
+    }
+
+    /**
+     * Defines how long the task waits and how often the container is inspected.
+     * <p>
+     * Defaults to waiting up to 60 seconds, inspecting the container after 50 milliseconds at first and
+     * every 2 seconds at most.
+     */
+    @Nested
+    @Optional
+    public ExecProbe getHealthProbe() {
+        return healthProbe;
+    }
+
+    public void setHealthProbe(ExecProbe healthProbe) {
+        this.healthProbe = healthProbe;
+    }
+
+    private final Property<Boolean> failOnUnhealthy = getProject().getObjects().property(Boolean.class);
+    private ExecProbe healthProbe;
+
+    public DockerAwaitHealthy() {
+        failOnUnhealthy.convention(true);
+    }
+
+    /**
+     * Define the options for waiting on the container.
+     *
+     * @param pollTime how long we will wait for
+     * @param initialPollInterval interval until the container is inspected the first time
+     * @param pollInterval maximum interval between inspecting the container
+     * @param backoffMultiplier factor the interval increases by after each inspection
+     * @return instance of ExecProbe
+     */
+    public ExecProbe healthProbe(final long pollTime, final long initialPollInterval, final long pollInterval, final double backoffMultiplier) {
+        return this.healthProbe = new ExecProbe(pollTime, initialPollInterval, pollInterval, backoffMultiplier);
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    public void runRemoteCommand() throws InterruptedException {
+        getLogger().quiet("Waiting for container with ID '" + getContainerId().get() + "' to become healthy.");
+        DockerClient dockerClient = getDockerClient();
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, filter -> getDockerEventsService().get().subscribe(dockerClient, filter), getContainerId().get(), healthProbe, failOnUnhealthy.get(), getLogger());
+        getLogger().quiet("Container with ID '" + getContainerId().get() + "' is healthy.");
+    }
+}
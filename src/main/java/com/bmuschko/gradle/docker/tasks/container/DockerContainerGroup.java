@@ -0,0 +1,676 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container;
+
+import com.bmuschko.gradle.docker.domain.ExecProbe;
+import com.bmuschko.gradle.docker.internal.ConcurrencyUtils;
+import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.exception.DockerException;
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.Named;
+import org.gradle.api.NamedDomainObjectContainer;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates and starts a group of containers concurrently.
+ * <p>
+ * Every container is configured like a {@link DockerCreateContainer} task. All containers are created at the same time,
+ * a container is started as soon as the containers listed in its {@link ContainerSpec#getStartAfter()} have been
+ * started, or have become healthy if they {@link ContainerSpec#getAwaitHealthy() await being healthy}. Starting the
+ * group therefore takes about as long as its slowest chain of containers instead of the sum of all containers.
+ * Containers created before a failure are recorded in {@link #getContainerIdsFile()} as well, so that they can be
+ * removed with {@link DockerRemoveContainerGroup}.
+ *
+ * @since 10.1.0
+ */
+public class DockerContainerGroup extends AbstractDockerRemoteApiTask {
+
+    /**
+     * The containers of the group.
+     */
+    @Nested
+    public final NamedDomainObjectContainer<ContainerSpec> getContainers() {
+        return containers;
+    }
+
+    /**
+     * Whether the containers are started after they have been created.
+     * <p>
+     * Defaults to true.
+     */
+    @Input
+    public final Property<Boolean> getStart() {
+        return start;
+    }
+
+    /**
+     * Defines how long to wait for the containers in {@link ContainerSpec#getAwaitHealthy()} to become healthy.
+     * <p>
+     * Defaults to waiting up to 60 seconds per container.
+     */
+    @Nested
+    @Optional
+    public ExecProbe getHealthProbe() {
+        return healthProbe;
+    }
+
+    public void setHealthProbe(ExecProbe healthProbe) {
+        this.healthProbe = healthProbe;
+    }
+
+    /**
+     * The maximum number of containers created or started at the same time.
+     * <p>
+     * Defaults to 8.
+     */
+    @Internal
+    public final Property<Integer> getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Output file containing the IDs of the containers created per container name.
+     * Defaults to "$buildDir/.docker/$taskpath-containerIds.properties".
+     * If path contains ':' it will be replaced by '_'.
+     */
+    @OutputFile
+    public final RegularFileProperty getContainerIdsFile() {
+        return containerIdsFile;
+    }
+
+    /**
+     * The IDs of the containers created per container name. The value of this property requires the task action to be executed.
+     */
+    @Internal
+    public final Provider<Map<String, String>> getContainerIds() {
+        return containerIds;
+    }
+
+    private final NamedDomainObjectContainer<ContainerSpec> containers;
+    private final Property<Boolean> start = getProject().getObjects().property(Boolean.class);
+    private final Property<Integer> parallelism = getProject().getObjects().property(Integer.class);
+    private final RegularFileProperty containerIdsFile = getProject().getObjects().fileProperty();
+    private final Provider<Map<String, String>> containerIds;
+    private ExecProbe healthProbe;
+
+    @Inject
+    public DockerContainerGroup(ObjectFactory objectFactory) {
+        containers = objectFactory.domainObjectContainer(ContainerSpec.class);
+        start.convention(true);
+        parallelism.convention(8);
+
+        final String safeTaskPath = getPath().replaceFirst("^:", "").replaceAll(":", "_");
+        containerIdsFile.convention(getProject().getLayout().getBuildDirectory().file(".docker/" + safeTaskPath + "-containerIds.properties"));
+        containerIds = containerIdsFile.map(file -> readContainerIds(file.getAsFile()));
+
+        getOutputs().upToDateWhen(element -> {
+            File file = containerIdsFile.get().getAsFile();
+            if (!file.exists()) {
+                return false;
+            }
+            Map<String, String> createdContainerIds = readContainerIds(file);
+            if (!createdContainerIds.keySet().equals(containers.getNames())) {
+                return false;
+            }
+            try {
+                for (String containerId : createdContainerIds.values()) {
+                    InspectContainerResponse container = getDockerClient().inspectContainerCmd(containerId).exec();
+                    if (start.get() && !Boolean.TRUE.equals(container.getState().getRunning())) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (DockerException ignored) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Configures the containers of the group.
+     *
+     * @param action The action against the containers
+     */
+    public void containers(Action<? super NamedDomainObjectContainer<ContainerSpec>> action) {
+        action.execute(containers);
+    }
+
+    /**
+     * Define the options for waiting on the containers to become healthy.
+     *
+     * @param pollTime how long we will wait for each container
+     * @param initialPollInterval interval until a container is inspected the first time
+     * @param pollInterval maximum interval between inspecting a container
+     * @param backoffMultiplier factor the interval increases by after each inspection
+     * @return instance of ExecProbe
+     */
+    public ExecProbe healthProbe(final long pollTime, final long initialPollInterval, final long pollInterval, final double backoffMultiplier) {
+        return this.healthProbe = new ExecProbe(pollTime, initialPollInterval, pollInterval, backoffMultiplier);
+    }
+
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        Set<String> imageIds = new HashSet<>();
+        for (ContainerSpec container : containers) {
+            if (container.getImageId().isPresent()) {
+                imageIds.add(container.getImageId().get());
+            }
+        }
+        return imageIds;
+    }
+
+    @Override
+    public void runRemoteCommand() throws InterruptedException {
+        List<ContainerSpec> specs = startOrder();
+        getLogger().quiet("Creating " + specs.size() + " containers.");
+        Map<String, String> createdContainerIds = new ConcurrentHashMap<>();
+        if (specs.isEmpty()) {
+            writeContainerIds(createdContainerIds);
+            return;
+        }
+
+        DockerClient dockerClient = getDockerClient();
+        boolean startContainers = start.get();
+        ExecutorService executor = ConcurrencyUtils.newDaemonThreadPool("docker-container-group", Math.min(parallelism.get(), specs.size()));
+        try {
+            // containers are listed after the containers they start after, so their futures exist already
+            Map<String, CompletableFuture<String>> created = new LinkedHashMap<>();
+            Map<String, CompletableFuture<String>> started = new LinkedHashMap<>();
+            for (ContainerSpec spec : specs) {
+                CompletableFuture<String> createdFuture = CompletableFuture.supplyAsync(() -> {
+                    String containerId = createContainer(dockerClient, spec);
+                    createdContainerIds.put(spec.getName(), containerId);
+                    return containerId;
+                }, executor);
+                created.put(spec.getName(), createdFuture);
+
+                if (startContainers) {
+                    List<CompletableFuture<String>> prerequisites = new ArrayList<>();
+                    prerequisites.add(createdFuture);
+                    for (String name : spec.getStartAfter().get()) {
+                        prerequisites.add(started.get(name));
+                    }
+                    started.put(spec.getName(), CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[0]))
+                            .thenApplyAsync(ignored -> startContainer(dockerClient, spec, createdFuture.join()), executor));
+                }
+            }
+
+            List<String> failures = new ArrayList<>();
+            for (ContainerSpec spec : specs) {
+                String failure = awaitFailure(created.get(spec.getName()));
+                if (failure == null && startContainers) {
+                    failure = awaitFailure(started.get(spec.getName()));
+                    if (failure != null && prerequisiteFailed(spec, started)) {
+                        failure = "Not started as a container it starts after failed";
+                    }
+                }
+                if (failure != null) {
+                    failures.add("Container '" + spec.getName() + "': " + failure);
+                }
+            }
+
+            writeContainerIds(createdContainerIds);
+            if (!failures.isEmpty()) {
+                throw new GradleException(failures.size() + " of " + specs.size() + " containers failed:\n" + String.join("\n", failures));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String createContainer(DockerClient dockerClient, ContainerSpec spec) {
+        CreateContainerCmd containerCommand = dockerClient.createContainerCmd(spec.getImageId().get());
+        CreateContainerConfigurer.configure(spec, containerCommand);
+        String containerId = containerCommand.exec().getId();
+        bindToSelectedHost(containerId);
+        getLogger().quiet("Created container '" + spec.getName() + "' with ID '" + containerId + "'.");
+        return containerId;
+    }
+
+    private String startContainer(DockerClient dockerClient, ContainerSpec spec, String containerId) {
+        dockerClient.startContainerCmd(containerId).exec();
+        getLogger().quiet("Started container '" + spec.getName() + "' with ID '" + containerId + "'.");
+        if (spec.getAwaitHealthy().get()) {
+            try {
+                ContainerHealthAwaiter.awaitHealthy(dockerClient, filter -> getDockerEventsService().get().subscribe(dockerClient, filter), containerId, healthProbe, true, getLogger());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GradleException("Interrupted while waiting for container '" + spec.getName() + "' to become healthy.", e);
+            }
+            getLogger().quiet("Container '" + spec.getName() + "' is healthy.");
+        }
+        return containerId;
+    }
+
+    private static boolean prerequisiteFailed(ContainerSpec spec, Map<String, CompletableFuture<String>> started) {
+        for (String name : spec.getStartAfter().get()) {
+            if (started.get(name).isCompletedExceptionally()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String awaitFailure(CompletableFuture<String> future) throws InterruptedException {
+        try {
+            future.get();
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null ? e.getCause().getCause() : e.getCause();
+            return ConcurrencyUtils.getMessage(cause);
+        }
+    }
+
+    /**
+     * Returns the containers ordered so that every container is listed after the containers it starts after.
+     */
+    private List<ContainerSpec> startOrder() {
+        List<ContainerSpec> ordered = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        for (ContainerSpec spec : containers) {
+            visit(spec, visited, new ArrayList<>(), ordered);
+        }
+        return ordered;
+    }
+
+    private void visit(ContainerSpec spec, Set<String> visited, List<String> path, List<ContainerSpec> ordered) {
+        if (path.contains(spec.getName())) {
+            path.add(spec.getName());
+            throw new InvalidUserDataException("Containers must not start after each other in a cycle: " + String.join(" -> ", path));
+        }
+        if (!visited.add(spec.getName())) {
+            return;
+        }
+        path.add(spec.getName());
+        for (String name : spec.getStartAfter().get()) {
+            ContainerSpec other = containers.findByName(name);
+            if (other == null) {
+                throw new InvalidUserDataException("Container '" + spec.getName() + "' starts after unknown container '" + name + "'.");
+            }
+            visit(other, visited, path, ordered);
+        }
+        path.remove(path.size() - 1);
+        ordered.add(spec);
+    }
+
+    private void writeContainerIds(Map<String, String> createdContainerIds) {
+        final Properties properties = new Properties();
+        properties.putAll(createdContainerIds);
+        File file = containerIdsFile.get().getAsFile();
+        file.getParentFile().mkdirs();
+        try (OutputStream os = Files.newOutputStream(file.toPath())) {
+            properties.store(os, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write container IDs to file", e);
+        }
+    }
+
+    private static Map<String, String> readContainerIds(File file) {
+        Map<String, String> result = new TreeMap<>();
+        if (!file.exists()) {
+            return result;
+        }
+        final Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(file.toPath())) {
+            properties.load(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String name : properties.stringPropertyNames()) {
+            result.put(name, properties.getProperty(name));
+        }
+        return result;
+    }
+
+    /**
+     * A container of the group. Provides the same configuration as {@link DockerCreateContainer}.
+     */
+    public static class ContainerSpec implements Named, CreateContainerConfiguration {
+        private final String name;
+
+        @Internal
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The ID or name of the image the container is created from.
+         */
+        @Input
+        public final Property<String> getImageId() {
+            return imageId;
+        }
+
+        private final Property<String> imageId;
+
+        /**
+         * The names of the containers in the group that need to be started before this container is started.
+         */
+        @Input
+        public final ListProperty<String> getStartAfter() {
+            return startAfter;
+        }
+
+        private final ListProperty<String> startAfter;
+
+        /**
+         * Whether the container only counts as started once its health check reports it as healthy.
+         * The containers starting after it then wait until it is ready instead of until it is running.
+         * <p>
+         * Defaults to false.
+         */
+        @Input
+        public final Property<Boolean> getAwaitHealthy() {
+            return awaitHealthy;
+        }
+
+        private final Property<Boolean> awaitHealthy;
+
+        @Input
+        @Optional
+        public final Property<String> getContainerName() {
+            return containerName;
+        }
+
+        private final Property<String> containerName;
+
+        @Input
+        @Optional
+        public final Property<String> getHostName() {
+            return hostName;
+        }
+
+        private final Property<String> hostName;
+
+        @Input
+        @Optional
+        public final Property<String> getIpv4Address() {
+            return ipv4Address;
+        }
+
+        private final Property<String> ipv4Address;
+
+        @Input
+        @Optional
+        public final ListProperty<String> getPortSpecs() {
+            return portSpecs;
+        }
+
+        private final ListProperty<String> portSpecs;
+
+        @Input
+        @Optional
+        public final Property<String> getUser() {
+            return user;
+        }
+
+        private final Property<String> user;
+
+        @Input
+        @Optional
+        public final Property<Boolean> getStdinOpen() {
+            return stdinOpen;
+        }
+
+        private final Property<Boolean> stdinOpen;
+
+        @Input
+        @Optional
+        public final Property<Boolean> getStdinOnce() {
+            return stdinOnce;
+        }
+
+        private final Property<Boolean> stdinOnce;
+
+        @Input
+        @Optional
+        public final Property<Boolean> getAttachStdin() {
+            return attachStdin;
+        }
+
+        private final Property<Boolean> attachStdin;
+
+        @Input
+        @Optional
+        public final Property<Boolean> getAttachStdout() {
+            return attachStdout;
+        }
+
+        private final Property<Boolean> attachStdout;
+
+        @Input
+        @Optional
+        public final Property<Boolean> getAttachStderr() {
+            return attachStderr;
+        }
+
+        private final Property<Boolean> attachStderr;
+
+        @Input
+        @Optional
+        public final MapProperty<String, String> getEnvVars() {
+            return envVars;
+        }
+
+        private final MapProperty<String, String> envVars;
+
+        @Input
+        @Optional
+        public final ListProperty<String> getCmd() {
+            return cmd;
+        }
+
+        private final ListProperty<String> cmd;
+
+        @Input
+        @Optional
+        public final ListProperty<String> getEntrypoint() {
+            return entrypoint;
+        }
+
+        private final ListProperty<String> entrypoint;
+
+        @Input
+        @Optional
+        public final ListProperty<String> getNetworkAliases() {
+            return networkAliases;
+        }
+
+        private final ListProperty<String> networkAliases;
+
+        @Input
+        @Optional
+        public final Property<String> getImage() {
+            return image;
+        }
+
+        private final Property<String> image;
+
+        @Input
+        @Optional
+        public final ListProperty<String> getVolumes() {
+            return volumes;
+        }
+
+        private final ListProperty<String> volumes;
+
+        @Input
+        @Optional
+        public final Property<String> getWorkingDir() {
+            return workingDir;
+        }
+
+        private final Property<String> workingDir;
+
+        @Input
+        public final ListProperty<DockerCreateContainer.ExposedPort> getExposedPorts() {
+            return exposedPorts;
+        }
+
+        private final ListProperty<DockerCreateContainer.ExposedPort> exposedPorts;
+
+        @Input
+        @Optional
+        public final Property<Boolean> getTty() {
+            return tty;
+        }
+
+        private final Property<Boolean> tty;
+
+        @Input
+        @Optional
+        public final Property<String> getPid() {
+            return pid;
+        }
+
+        private final Property<String> pid;
+
+        @Input
+        @Optional
+        public final MapProperty<String, String> getLabels() {
+            return labels;
+        }
+
+        private final MapProperty<String, String> labels;
+
+        @Input
+        @Optional
+        public final Property<String> getMacAddress() {
+            return macAddress;
+        }
+
+        private final Property<String> macAddress;
+
+        /**
+         * The target platform in the format {@code os[/arch[/variant]]}, for example {@code linux/s390x} or {@code darwin}.
+         */
+        @Input
+        @Optional
+        public final Property<String> getPlatform() {
+            return platform;
+        }
+
+        private final Property<String> platform;
+
+        @Nested
+        public final DockerCreateContainer.HostConfig getHostConfig() {
+            return hostConfig;
+        }
+
+        private final DockerCreateContainer.HostConfig hostConfig;
+
+        @Nested
+        public final DockerCreateContainer.HealthCheckConfig getHealthCheck() {
+            return healthCheck;
+        }
+
+        private final DockerCreateContainer.HealthCheckConfig healthCheck;
+
+        @Inject
+        public ContainerSpec(String name, ObjectFactory objectFactory) {
+            this.name = name;
+            imageId = objectFactory.property(String.class);
+            startAfter = objectFactory.listProperty(String.class);
+            awaitHealthy = objectFactory.property(Boolean.class);
+            containerName = objectFactory.property(String.class);
+            hostName = objectFactory.property(String.class);
+            ipv4Address = objectFactory.property(String.class);
+            portSpecs = objectFactory.listProperty(String.class);
+            user = objectFactory.property(String.class);
+            stdinOpen = objectFactory.property(Boolean.class);
+            stdinOnce = objectFactory.property(Boolean.class);
+            attachStdin = objectFactory.property(Boolean.class);
+            attachStdout = objectFactory.property(Boolean.class);
+            attachStderr = objectFactory.property(Boolean.class);
+            envVars = objectFactory.mapProperty(String.class, String.class);
+            cmd = objectFactory.listProperty(String.class);
+            entrypoint = objectFactory.listProperty(String.class);
+            networkAliases = objectFactory.listProperty(String.class);
+            image = objectFactory.property(String.class);
+            volumes = objectFactory.listProperty(String.class);
+            workingDir = objectFactory.property(String.class);
+            exposedPorts = objectFactory.listProperty(DockerCreateContainer.ExposedPort.class);
+            tty = objectFactory.property(Boolean.class);
+            pid = objectFactory.property(String.class);
+            labels = objectFactory.mapProperty(String.class, String.class);
+            macAddress = objectFactory.property(String.class);
+            platform = objectFactory.property(String.class);
+            hostConfig = objectFactory.newInstance(DockerCreateContainer.HostConfig.class);
+            healthCheck = objectFactory.newInstance(DockerCreateContainer.HealthCheckConfig.class);
+            stdinOpen.convention(false);
+            stdinOnce.convention(false);
+            attachStdin.convention(false);
+            attachStdout.convention(false);
+            attachStderr.convention(false);
+            tty.convention(false);
+            awaitHealthy.convention(false);
+        }
+
+        public void exposePorts(String internetProtocol, List<Integer> ports) {
+            exposedPorts.add(new DockerCreateContainer.ExposedPort(internetProtocol, ports));
+        }
+
+        public void withEnvVar(String key, String value) {
+            envVars.put(key, value);
+        }
+
+        public void hostConfig(Action<? super DockerCreateContainer.HostConfig> action) {
+            action.execute(hostConfig);
+        }
+
+        public void healthCheck(Action<? super DockerCreateContainer.HealthCheckConfig> action) {
+            action.execute(healthCheck);
+        }
+    }
+}
@@ -92,6 +92,11 @@ public class DockerCopyFileFromContainer extends DockerExistingContainer {
         this.archiveOperations = archiveOperations;
     }
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() throws IOException {
 
@@ -72,6 +72,11 @@ public class DockerCopyFileToContainer extends DockerExistingContainer {
     private final RegularFileProperty tarFile = getProject().getObjects().fileProperty();
     private final ArrayList<CopyFileToContainer> copyFiles = new ArrayList<CopyFileToContainer>();
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() throws IOException {
 
@@ -40,7 +40,7 @@ import java.nio.file.Files;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class DockerCreateContainer extends DockerExistingImage {
+public class DockerCreateContainer extends DockerExistingImage implements CreateContainerConfiguration {
     @Input
     @Optional
     public final Property<String> getContainerName() {
@@ -282,8 +282,9 @@ public class DockerCreateContainer extends DockerExistingImage {
     @Override
     public void runRemoteCommand() throws IOException {
         CreateContainerCmd containerCommand = getDockerClient().createContainerCmd(getImageId().get());
-        setContainerCommandConfig(containerCommand);
+        CreateContainerConfigurer.configure(this, containerCommand);
         CreateContainerResponse container = containerCommand.exec();
+        bindToSelectedHost(container.getId());
         final String orNull = containerName.getOrNull();
         final String localContainerName = orNull != null ? orNull : container.getId();
         getLogger().quiet("Created container with ID '" + localContainerName + "'.");
@@ -301,235 +302,6 @@ public class DockerCreateContainer extends DockerExistingImage {
         envVars.put(key, value);
     }
 
-    private static HealthCheck getOrCreateHealthCheck(CreateContainerCmd containerCommand) {
-        if (containerCommand.getHealthcheck() == null) {
-            containerCommand.withHealthcheck(new HealthCheck());
-        }
-        return containerCommand.getHealthcheck();
-    }
-
-    private void setContainerCommandConfig(CreateContainerCmd containerCommand) {
-        if (containerName.getOrNull() != null) {
-            containerCommand.withName(containerName.get());
-        }
-
-        if (hostName.getOrNull() != null) {
-            containerCommand.withHostName(hostName.get());
-        }
-
-        if (ipv4Address.getOrNull() != null) {
-            containerCommand.withIpv4Address(ipv4Address.get());
-        }
-
-        if (portSpecs.getOrNull() != null && !portSpecs.get().isEmpty()) {
-            containerCommand.withPortSpecs(portSpecs.get());
-        }
-
-        if (user.getOrNull() != null) {
-            containerCommand.withUser(user.get());
-        }
-
-        if (hostConfig.getGroups().getOrNull() != null && !hostConfig.getGroups().get().isEmpty()) {
-            containerCommand.getHostConfig().withGroupAdd(hostConfig.getGroups().get());
-        }
-
-        if (Boolean.TRUE.equals(stdinOpen.getOrNull())) {
-            containerCommand.withStdinOpen(stdinOpen.get());
-        }
-
-        if (Boolean.TRUE.equals(stdinOnce.getOrNull())) {
-            containerCommand.withStdInOnce(stdinOnce.get());
-        }
-
-        if (hostConfig.getMemory().getOrNull() != null) {
-            containerCommand.getHostConfig().withMemory(hostConfig.getMemory().get());
-        }
-
-        if (hostConfig.getMemorySwap().getOrNull() != null) {
-            containerCommand.getHostConfig().withMemorySwap(hostConfig.getMemorySwap().get());
-        }
-
-        if (hostConfig.getCpuset().getOrNull() != null) {
-            containerCommand.getHostConfig().withCpusetCpus(hostConfig.getCpuset().get());
-        }
-
-        if (Boolean.TRUE.equals(attachStdin.getOrNull())) {
-            containerCommand.withAttachStdin(attachStdin.get());
-        }
-
-        if (Boolean.TRUE.equals(attachStdout.getOrNull())) {
-            containerCommand.withAttachStdout(attachStdout.get());
-        }
-
-        if (Boolean.TRUE.equals(attachStderr.getOrNull())) {
-            containerCommand.withAttachStderr(attachStderr.get());
-        }
-
-        // marshall map into list
-        if (envVars.getOrNull() != null && !envVars.get().isEmpty()) {
-            containerCommand.withEnv(envVars.get().entrySet().stream().map(entry -> entry.getKey() +"="+entry.getValue()).collect(Collectors.toList()));
-        }
-
-        if (cmd.getOrNull() != null && !cmd.get().isEmpty()) {
-            containerCommand.withCmd(cmd.get());
-        }
-
-        if (entrypoint.getOrNull() != null && !entrypoint.get().isEmpty()) {
-            containerCommand.withEntrypoint(entrypoint.get());
-        }
-
-        if (hostConfig.getDns().getOrNull() != null && !hostConfig.getDns().get().isEmpty()) {
-            containerCommand.getHostConfig().withDns(hostConfig.getDns().get());
-        }
-
-        if (hostConfig.getNetwork().getOrNull() != null) {
-            containerCommand.getHostConfig().withNetworkMode(hostConfig.getNetwork().get());
-        }
-
-        if (networkAliases.getOrNull() != null && !networkAliases.get().isEmpty()) {
-            containerCommand.withAliases(networkAliases.get());
-        }
-
-        if (image.getOrNull() != null) {
-            containerCommand.withImage(image.get());
-        }
-
-        if (volumes.getOrNull() != null && !volumes.get().isEmpty()) {
-            List<Volume> createdVolumes = volumes.get().stream().map(Volume::parse).collect(Collectors.toList());
-            containerCommand.withVolumes(createdVolumes);
-        }
-
-        if (hostConfig.getLinks().getOrNull() != null && !hostConfig.getLinks().get().isEmpty()) {
-            List<Link> createdLinks = hostConfig.links.get().stream().map(Link::parse).collect(Collectors.toList());
-            containerCommand.getHostConfig().withLinks(createdLinks.toArray(Link[]::new));
-        }
-
-        if (hostConfig.getVolumesFrom().getOrNull() != null && !hostConfig.getVolumesFrom().get().isEmpty()) {
-            List<VolumesFrom> createdVolumes = hostConfig.volumesFrom.get().stream().map(VolumesFrom::new).collect(Collectors.toList());
-            containerCommand.getHostConfig().withVolumesFrom(createdVolumes);
-        }
-
-        if (workingDir.getOrNull() != null) {
-            containerCommand.withWorkingDir(workingDir.get());
-        }
-
-        if (exposedPorts.getOrNull() != null && !exposedPorts.get().isEmpty()) {
-            List<com.github.dockerjava.api.model.ExposedPort> allPorts = exposedPorts.get().stream().flatMap(exposedPort ->
-                    exposedPort.getPorts().stream().map(port -> new com.github.dockerjava.api.model.ExposedPort(port, InternetProtocol.parse(exposedPort.getInternetProtocol().toLowerCase())))).collect(Collectors.toList());
-            containerCommand.withExposedPorts(allPorts);
-        }
-
-        if (hostConfig.getPortBindings().getOrNull() != null && !hostConfig.getPortBindings().get().isEmpty()) {
-            List<PortBinding> createdPortBindings = hostConfig.portBindings.get().stream().map(PortBinding::parse).collect(Collectors.toList());
-            containerCommand.getHostConfig().withPortBindings(new Ports(createdPortBindings.toArray(PortBinding[]::new)));
-        }
-
-        if (Boolean.TRUE.equals(hostConfig.getPublishAll().getOrNull())) {
-            containerCommand.getHostConfig().withPublishAllPorts(hostConfig.getPublishAll().get());
-        }
-
-        if (hostConfig.getBinds().getOrNull() != null && !hostConfig.getBinds().get().isEmpty()) {
-            List<Bind> createdBinds = hostConfig.binds.get().entrySet().stream().map(it -> Bind.parse(it.getKey() + ":" + it.getValue())).collect(Collectors.toList());
-            containerCommand.getHostConfig().withBinds(createdBinds);
-        }
-
-        if (hostConfig.getTmpFs().getOrNull() != null && !hostConfig.getTmpFs().get().isEmpty()) {
-            containerCommand.getHostConfig().withTmpFs(hostConfig.getTmpFs().get());
-        }
-
-        if (hostConfig.getExtraHosts().getOrNull() != null && !hostConfig.getExtraHosts().get().isEmpty()) {
-            containerCommand.getHostConfig().withExtraHosts(hostConfig.getExtraHosts().get().toArray(String[]::new));
-        }
-
-        if (hostConfig.getLogConfig().getOrNull() != null) {
-            com.github.dockerjava.api.model.LogConfig.LoggingType type = com.github.dockerjava.api.model.LogConfig.LoggingType.fromValue(hostConfig.getLogConfig().get().getType());
-            com.github.dockerjava.api.model.LogConfig config = new com.github.dockerjava.api.model.LogConfig(type, hostConfig.getLogConfig().get().getConfig());
-            containerCommand.getHostConfig().withLogConfig(config);
-        }
-
-        if (Boolean.TRUE.equals(hostConfig.getPrivileged().getOrNull())) {
-            containerCommand.getHostConfig().withPrivileged(hostConfig.getPrivileged().get());
-        }
-
-        if (hostConfig.getRestartPolicy().getOrNull() != null) {
-            containerCommand.getHostConfig().withRestartPolicy(RestartPolicy.parse(hostConfig.getRestartPolicy().get()));
-        }
-
-        if (hostConfig.getCapAdd().getOrNull() != null && !hostConfig.getCapAdd().get().isEmpty()) {
-            Capability[] capabilities = hostConfig.getCapAdd().get().stream().map(Capability::valueOf).toArray(Capability[]::new);
-            containerCommand.getHostConfig().withCapAdd(capabilities);
-        }
-
-        if (hostConfig.getCapDrop().getOrNull() != null && !hostConfig.getCapDrop().get().isEmpty()) {
-            Capability[] capabilities = hostConfig.getCapDrop().get().stream().map(Capability::valueOf).toArray(Capability[]::new);
-            containerCommand.getHostConfig().withCapDrop(capabilities);
-        }
-
-        if (pid.getOrNull() != null) {
-            containerCommand.getHostConfig().withPidMode(pid.get());
-        }
-
-        if (hostConfig.getDevices().getOrNull() != null && !hostConfig.getDevices().get().isEmpty()) {
-            List<Device> createdDevices = hostConfig.getDevices().get().stream().map(Device::parse).collect(Collectors.toList());
-            containerCommand.getHostConfig().withDevices(createdDevices);
-        }
-
-        if (Boolean.TRUE.equals(tty.getOrNull())) {
-            containerCommand.withTty(tty.get());
-        }
-
-        if (hostConfig.getShmSize().getOrNull() != null) { // 0 is valid input
-            containerCommand.getHostConfig().withShmSize(hostConfig.getShmSize().get());
-        }
-
-        if (hostConfig.getAutoRemove().getOrNull() != null) {
-            containerCommand.getHostConfig().withAutoRemove(hostConfig.getAutoRemove().get());
-        }
-
-        if (labels.getOrNull() != null && !labels.get().isEmpty()) {
-            containerCommand.withLabels(labels.get());
-        }
-
-        if (macAddress.getOrNull() != null) {
-            containerCommand.withMacAddress(macAddress.get());
-        }
-
-        if (platform.getOrNull() != null && !platform.get().isEmpty()) {
-            containerCommand.withPlatform(platform.get());
-        }
-
-        if (hostConfig.getIpcMode().getOrNull() != null) {
-            containerCommand.getHostConfig().withIpcMode(hostConfig.getIpcMode().get());
-        }
-
-        if (hostConfig.getSysctls().getOrNull() != null && !hostConfig.getSysctls().get().isEmpty()) {
-            containerCommand.getHostConfig().withSysctls(hostConfig.getSysctls().get());
-        }
-
-        if (healthCheck.getInterval().getOrNull() != null) {
-            getOrCreateHealthCheck(containerCommand).withInterval(healthCheck.getInterval().get());
-        }
-
-        if (healthCheck.getTimeout().getOrNull() != null) {
-            getOrCreateHealthCheck(containerCommand).withTimeout(healthCheck.getTimeout().get());
-        }
-
-        if (healthCheck.getCmd().getOrNull() != null && !healthCheck.getCmd().get().isEmpty()) {
-            String command = healthCheck.getCmd().get().size() == 1 ? "CMD-SHELL" : "CMD";
-            List<String> test = new ArrayList<>(List.of(command));
-            test.addAll(healthCheck.getCmd().get());
-            getOrCreateHealthCheck(containerCommand).withTest(test);
-        }
-
-        if (healthCheck.getRetries().getOrNull() != null) {
-            getOrCreateHealthCheck(containerCommand).withRetries(healthCheck.getRetries().get());
-        }
-
-        if (healthCheck.getStartPeriod().getOrNull() != null) {
-            getOrCreateHealthCheck(containerCommand).withStartPeriod(healthCheck.getStartPeriod().get());
-        }
-    }
-
     public static class ExposedPort implements Serializable {
         private final String internetProtocol;
         private final List<Integer> ports;
@@ -16,12 +16,13 @@
 package com.bmuschko.gradle.docker.tasks.container;
 
 import com.bmuschko.gradle.docker.domain.ExecProbe;
+import com.bmuschko.gradle.docker.internal.BufferedLogSink;
+import com.bmuschko.gradle.docker.internal.ConcurrencyUtils;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.ExecCreateCmd;
 import com.github.dockerjava.api.command.InspectExecResponse;
 import com.github.dockerjava.api.model.Frame;
-import org.gradle.api.Action;
 import org.gradle.api.GradleException;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.model.ObjectFactory;
@@ -33,22 +34,27 @@ import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputFile;
-import org.gradle.internal.logging.progress.ProgressLogger;
 
 import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.bmuschko.gradle.docker.internal.IOUtils.getProgressLogger;
 
 public class DockerExecContainer extends DockerExistingContainer {
 
+    private static final int OUTPUT_FILE_BUFFER_SIZE = 64 * 1024;
+
     @Input
     @Optional
     public final ListProperty<String[]> getCommands() {
@@ -107,6 +113,93 @@ public class DockerExecContainer extends DockerExistingContainer {
         this.execProbe = execProbe;
     }
 
+    /**
+     * The maximum number of commands executed at the same time. Commands are expected to be independent of each other
+     * if set to more than 1. The output of each command is written once the command has finished, in the order of the
+     * commands, and unsuccessful exit codes of all commands are reported together.
+     * <p>
+     * Defaults to 1, which executes the commands one after another.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final Property<Integer> getCommandParallelism() {
+        return commandParallelism;
+    }
+
+    /**
+     * File to write the standard out of the commands into instead of the console.
+     * <p>
+     * Defaults to unspecified, which writes standard out to the console unless it is captured with {@link #getCaptureOutput()}.
+     *
+     * @since 10.1.0
+     */
+    @OutputFile
+    @Optional
+    public final RegularFileProperty getStdOutFile() {
+        return stdOutFile;
+    }
+
+    /**
+     * File to write the standard err of the commands into instead of the console.
+     * <p>
+     * Defaults to unspecified, which writes standard err to the console unless it is captured with {@link #getCaptureOutput()}.
+     *
+     * @since 10.1.0
+     */
+    @OutputFile
+    @Optional
+    public final RegularFileProperty getStdErrFile() {
+        return stdErrFile;
+    }
+
+    /**
+     * Set to true to capture the output of the commands in memory instead of writing it to the console.
+     * The captured output is available from {@link #getCapturedStdOut()} and {@link #getCapturedStdErr()} once the task has run.
+     * <p>
+     * Defaults to false.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final Property<Boolean> getCaptureOutput() {
+        return captureOutput;
+    }
+
+    /**
+     * The maximum number of bytes captured per stream. Output exceeding the limit is dropped.
+     * <p>
+     * Defaults to 1 MiB.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final Property<Integer> getCaptureOutputLimit() {
+        return captureOutputLimit;
+    }
+
+    /**
+     * The captured standard out of all commands, if enabled with {@link #getCaptureOutput()}. The value is set by
+     * the task action, so it is not available from the configuration cache; use {@link #getStdOutFile()} in that case.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final Provider<String> getCapturedStdOut() {
+        return capturedStdOut;
+    }
+
+    /**
+     * The captured standard err of all commands, if enabled with {@link #getCaptureOutput()}. The value is set by
+     * the task action, so it is not available from the configuration cache; use {@link #getStdErrFile()} in that case.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final Provider<String> getCapturedStdErr() {
+        return capturedStdErr;
+    }
+
     @OutputFile
     public final RegularFileProperty getExecIdsFile() {
         return execIdsFile;
@@ -128,7 +221,15 @@ public class DockerExecContainer extends DockerExistingContainer {
     private final Property<String> user = getProject().getObjects().property(String.class);
     private final Property<String> workingDir = getProject().getObjects().property(String.class);
     private final ListProperty<Integer> successOnExitCodes = getProject().getObjects().listProperty(Integer.class);
+    private final Property<Integer> commandParallelism = getProject().getObjects().property(Integer.class);
+    private final RegularFileProperty stdOutFile = getProject().getObjects().fileProperty();
+    private final RegularFileProperty stdErrFile = getProject().getObjects().fileProperty();
+    private final Property<Boolean> captureOutput = getProject().getObjects().property(Boolean.class);
+    private final Property<Integer> captureOutputLimit = getProject().getObjects().property(Integer.class);
+    private final Property<String> capturedStdOut = getProject().getObjects().property(String.class);
+    private final Property<String> capturedStdErr = getProject().getObjects().property(String.class);
     private ExecProbe execProbe;
+    private ExecOutput execOutput;
     private final List<String> execIds = new ArrayList<>();
     private final RegularFileProperty execIdsFile;
     private final Provider<List<String>> execIdsProvider;
@@ -137,6 +238,9 @@ public class DockerExecContainer extends DockerExistingContainer {
     public DockerExecContainer(ObjectFactory objects) {
         attachStdout.convention(true);
         attachStderr.convention(true);
+        commandParallelism.convention(1);
+        captureOutput.convention(false);
+        captureOutputLimit.convention(1024 * 1024);
 
         execIdsFile = objects.fileProperty();
         final String safeTaskPath = getPath().replaceFirst("^:", "").replaceAll(":", "_");
@@ -161,68 +265,27 @@ public class DockerExecContainer extends DockerExistingContainer {
     }
 
     protected void doRunRemoteCommand(DockerClient dockerClient) throws InterruptedException {
-        ResultCallback.Adapter<Frame> execCallback = createCallback(getNextHandler());
-
         execIds.clear();
         List<String[]> localCommands = commands.get();
-        for (int i = 0; i < commands.get().size(); i++) {
-
-            final String[] singleCommand = localCommands.get(i);
-            ExecCreateCmd execCmd = dockerClient.execCreateCmd(getContainerId().get());
-            setContainerCommandConfig(execCmd, singleCommand);
-            String localExecId = execCmd.exec().getId();
-            dockerClient.execStartCmd(localExecId).withDetach(false).exec(execCallback).awaitCompletion();
-
-
-            // create progressLogger for pretty printing of terminal log progression.
-            final ProgressLogger progressLogger = getProgressLogger(getServices(), DockerExecContainer.class);
-            progressLogger.started();
-
-            // if no livenessProbe defined then create a default
-            final ExecProbe localProbe = execProbe != null ? execProbe : new ExecProbe(60000, 2000);
-
-            long localPollTime = localProbe.getPollTime();
-            int pollTimes = 0;
-            boolean isRunning = true;
-
-            // 3.) poll for some amount of time until container is in a non-running state.
-            InspectExecResponse lastExecResponse = null;
-            while (isRunning && localPollTime > 0) {
-                pollTimes += 1;
-
-                lastExecResponse = dockerClient.inspectExecCmd(localExecId).exec();
-                isRunning = lastExecResponse.isRunning();
-                if (isRunning) {
-
-                    long totalMillis = pollTimes * localProbe.getPollInterval();
-                    final long totalMinutes = TimeUnit.MILLISECONDS.toMinutes(totalMillis);
-                    progressLogger.progress("Executing for " + totalMinutes + "m...");
-                    try {
-
-                        localPollTime -= localProbe.getPollInterval();
-                        Thread.sleep(localProbe.getPollInterval());
-                    } catch (Exception e) {
-                        throw e;
-                    }
-                } else {
-                    break;
-                }
-            }
-            progressLogger.completed();
-
-            // if still running then throw an exception otherwise check the exitCode
-            if (isRunning) {
-                throw new GradleException("Exec '" + Arrays.toString(singleCommand) + "' did not finish in a timely fashion: " + localProbe);
+        try (ExecOutput output = new ExecOutput()) {
+            execOutput = output;
+            if (commandParallelism.get() > 1 && localCommands.size() > 1) {
+                execIds.addAll(runCommandsInParallel(dockerClient, localCommands));
             } else {
-                if (successOnExitCodes.getOrNull() != null && !successOnExitCodes.get().isEmpty()) {
-                    int exitCode = lastExecResponse.getExitCode() != null ? lastExecResponse.getExitCode().intValue() : 0;
-                    if (!successOnExitCodes.get().contains(exitCode)) {
-                        throw new GradleException(exitCode + " is not a successful exit code. Valid values are " + getSuccessOnExitCodes().get() + ", response=" + lastExecResponse);
+                for (String[] singleCommand : localCommands) {
+                    // a completed callback returns from awaitCompletion immediately, so every exec needs its own
+                    ExecResult result = runCommand(dockerClient, singleCommand, createCallback());
+                    String failure = DockerExecSupport.checkExitCode(successOnExitCodes.getOrNull(), result.response);
+                    if (failure != null) {
+                        throw new GradleException(failure);
                     }
+                    execIds.add(result.execId);
                 }
             }
-
-            execIds.add(localExecId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write exec output", e);
+        } finally {
+            execOutput = null;
         }
 
         // Write exec IDs to file for configuration cache compatibility
@@ -236,27 +299,62 @@ public class DockerExecContainer extends DockerExistingContainer {
     }
 
 
-    private void setContainerCommandConfig(ExecCreateCmd containerCommand, String[] commandToExecute) {
-        if (commandToExecute != null) {
-            containerCommand.withCmd(commandToExecute);
-        }
-
-        if (Boolean.TRUE.equals(attachStderr.getOrNull())) {
-            containerCommand.withAttachStderr(attachStderr.get());
-        }
-
-        if (Boolean.TRUE.equals(attachStdout.getOrNull())) {
-            containerCommand.withAttachStdout(attachStdout.get());
-        }
+    /**
+     * Runs the commands concurrently. The output of each command is buffered and written once the command and all
+     * commands before it have finished, so that output is never interleaved and appears in the order of the commands.
+     * Unsuccessful exit codes of all commands are reported together.
+     *
+     * @return The exec IDs in the order of the commands
+     */
+    private List<String> runCommandsInParallel(DockerClient dockerClient, List<String[]> localCommands) throws InterruptedException {
+        ExecutorService executor = ConcurrencyUtils.newDaemonThreadPool("docker-exec", Math.min(commandParallelism.get(), localCommands.size()));
+        try {
+            List<Future<ExecResult>> results = new ArrayList<>();
+            for (final String[] singleCommand : localCommands) {
+                results.add(executor.submit(() -> {
+                    DockerExecSupport.BufferingCallback callback = new DockerExecSupport.BufferingCallback();
+                    ExecResult result = runCommand(dockerClient, singleCommand, callback);
+                    result.frames = callback.getFrames();
+                    return result;
+                }));
+            }
 
-        if (user.getOrNull() != null) {
-            containerCommand.withUser(user.get());
+            List<String> localExecIds = new ArrayList<>();
+            List<String> failures = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                ExecResult result;
+                try {
+                    result = results.get(i).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new GradleException("Exec '" + Arrays.toString(localCommands.get(i)) + "' failed", cause);
+                }
+                DockerExecSupport.replay(result.frames, createCallback());
+                String failure = DockerExecSupport.checkExitCode(successOnExitCodes.getOrNull(), result.response);
+                if (failure != null) {
+                    failures.add("Exec '" + Arrays.toString(localCommands.get(i)) + "': " + failure);
+                }
+                localExecIds.add(result.execId);
+            }
+            if (!failures.isEmpty()) {
+                throw new GradleException(failures.size() + " of " + localCommands.size() + " commands failed:\n" + String.join("\n", failures));
+            }
+            return localExecIds;
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-
-        if (workingDir.getOrNull() != null) {
-            containerCommand.withWorkingDir(workingDir.get());
-        }
+    private ExecResult runCommand(DockerClient dockerClient, String[] singleCommand, ResultCallback.Adapter<Frame> callback) throws InterruptedException {
+        ExecCreateCmd execCmd = dockerClient.execCreateCmd(getContainerId().get());
+        DockerExecSupport.setContainerCommandConfig(execCmd, singleCommand, attachStdout, attachStderr, user, workingDir);
+        String localExecId = execCmd.exec().getId();
+        bindToSelectedHost(localExecId);
+        dockerClient.execStartCmd(localExecId).withDetach(false).exec(callback).awaitCompletion();
+        return new ExecResult(localExecId, DockerExecSupport.awaitExecFinished(dockerClient, localExecId, singleCommand, execProbe, () -> getProgressLogger(getServices(), DockerExecContainer.class)));
     }
 
     /**
@@ -270,49 +368,158 @@ public class DockerExecContainer extends DockerExistingContainer {
         return this.execProbe = new ExecProbe(pollTime, pollInterval);
     }
 
-    private ResultCallback.Adapter<Frame> createCallback(final Action nextHandler) {
-        if (nextHandler != null) {
-            return new ResultCallback.Adapter<Frame>() {
-                @Override
-                public void onNext(Frame frame) {
-                    try {
-                        nextHandler.execute(frame);
-                    } catch (Exception e) {
-                        getLogger().error("Failed to handle frame", e);
-                        return;
-                    }
-                    super.onNext(frame);
-                }
-            };
-        }
+    /**
+     * Define the livenessProbe options polling in exponentially increasing intervals for this exec.
+     *
+     * @param pollTime how long we will poll for
+     * @param initialPollInterval interval until the first poll request
+     * @param pollInterval maximum interval between poll requests
+     * @param backoffMultiplier factor the interval increases by after each poll request
+     * @return instance of ExecProbe
+     * @since 10.1.0
+     */
+    public ExecProbe execProbe(final long pollTime, final long initialPollInterval, final long pollInterval, final double backoffMultiplier) {
+        return this.execProbe = new ExecProbe(pollTime, initialPollInterval, pollInterval, backoffMultiplier);
+    }
 
+    private ResultCallback.Adapter<Frame> createCallback() {
+        final ResultCallback.Adapter<Frame> delegate = DockerExecSupport.createCallback(getNextHandler(), getLogger());
+        final ExecOutput output = execOutput;
+        if (output == null || !output.isEnabled()) {
+            return delegate;
+        }
         return new ResultCallback.Adapter<Frame>() {
             @Override
             public void onNext(Frame frame) {
-                if (frame != null) {
-                    switch (frame.getStreamType()) {
-                        case STDOUT:
-                        case RAW:
-                            try {
-                                System.out.write(frame.getPayload());
-                            } catch (IOException e) {
-                                throw new UncheckedIOException(e);
-                            }
-                            System.out.flush();
-                            break;
-                        case STDERR:
-                            try {
-                                System.err.write(frame.getPayload());
-                            } catch (IOException e) {
-                                throw new UncheckedIOException(e);
-                            }
-                            System.err.flush();
-                            break;
-                        default:
-                            getLogger().error("unknown stream type:" + frame.getStreamType());
-                    }
+                boolean consumed;
+                try {
+                    consumed = output.write(frame);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                // frames are only passed on to the console if they have not been written to a file or captured
+                if (!consumed || getNextHandler() != null) {
+                    delegate.onNext(frame);
                 }
+                super.onNext(frame);
             }
         };
     }
+
+    /**
+     * The files and in-memory buffers receiving the output of all commands of a single task execution.
+     */
+    private class ExecOutput implements AutoCloseable {
+        private final BufferedLogSink stdOutSink;
+        private final BufferedLogSink stdErrSink;
+        private final BoundedByteBuffer stdOutBuffer;
+        private final BoundedByteBuffer stdErrBuffer;
+
+        private ExecOutput() throws IOException {
+            stdOutSink = createSink(stdOutFile);
+            stdErrSink = createSink(stdErrFile);
+            stdOutBuffer = captureOutput.get() ? new BoundedByteBuffer(captureOutputLimit.get()) : null;
+            stdErrBuffer = captureOutput.get() ? new BoundedByteBuffer(captureOutputLimit.get()) : null;
+        }
+
+        private boolean isEnabled() {
+            return stdOutSink != null || stdErrSink != null || captureOutput.get();
+        }
+
+        /**
+         * Writes the frame to the file and buffer of its stream.
+         *
+         * @return Whether the frame has been consumed
+         */
+        private synchronized boolean write(Frame frame) throws IOException {
+            switch (frame.getStreamType()) {
+                case STDOUT:
+                case RAW:
+                    return write(frame.getPayload(), stdOutSink, stdOutBuffer);
+                case STDERR:
+                    return write(frame.getPayload(), stdErrSink, stdErrBuffer);
+                default:
+                    return false;
+            }
+        }
+
+        private boolean write(byte[] payload, BufferedLogSink sink, BoundedByteBuffer buffer) throws IOException {
+            if (sink != null) {
+                sink.write(payload);
+            }
+            if (buffer != null) {
+                buffer.write(payload);
+            }
+            return sink != null || buffer != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (stdOutBuffer != null) {
+                capturedStdOut.set(stdOutBuffer.toString());
+                capturedStdErr.set(stdErrBuffer.toString());
+                if (stdOutBuffer.isTruncated() || stdErrBuffer.isTruncated()) {
+                    getLogger().warn("Captured exec output has been truncated to " + captureOutputLimit.get() + " bytes per stream.");
+                }
+            }
+            try {
+                if (stdOutSink != null) {
+                    stdOutSink.close();
+                }
+            } finally {
+                if (stdErrSink != null) {
+                    stdErrSink.close();
+                }
+            }
+        }
+
+        private BufferedLogSink createSink(RegularFileProperty file) throws IOException {
+            if (!file.isPresent()) {
+                return null;
+            }
+            // the sink appends, the output of previous executions is replaced
+            Files.deleteIfExists(file.get().getAsFile().toPath());
+            return new BufferedLogSink(file.get().getAsFile(), OUTPUT_FILE_BUFFER_SIZE, null, false, 0);
+        }
+    }
+
+    private static final class BoundedByteBuffer {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final int limit;
+        private boolean truncated;
+
+        private BoundedByteBuffer(int limit) {
+            this.limit = limit;
+        }
+
+        private void write(byte[] bytes) {
+            int length = Math.min(bytes.length, limit - buffer.size());
+            if (length < bytes.length) {
+                truncated = true;
+            }
+            if (length > 0) {
+                buffer.write(bytes, 0, length);
+            }
+        }
+
+        private boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class ExecResult {
+        private final String execId;
+        private final InspectExecResponse response;
+        private List<Frame> frames;
+
+        private ExecResult(String execId, InspectExecResponse response) {
+            this.execId = execId;
+            this.response = response;
+        }
+    }
 }
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container;
+
+import com.bmuschko.gradle.docker.domain.ExecProbe;
+import com.bmuschko.gradle.docker.internal.ConcurrencyUtils;
+import com.bmuschko.gradle.docker.internal.services.DockerClientService;
+import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.ExecCreateCmd;
+import com.github.dockerjava.api.command.InspectExecResponse;
+import com.github.dockerjava.api.model.Frame;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.bmuschko.gradle.docker.internal.IOUtils.getProgressLogger;
+
+/**
+ * Executes the same commands within many running containers concurrently.
+ * <p>
+ * The commands run one after another within each container, the containers are processed in parallel up to
+ * {@link #getParallelism()}. The output of each container is written once all of its commands have finished, in the
+ * order of the containers. The task fails after all containers have been processed if any command failed, and writes
+ * the exec IDs and exit codes per container to {@link #getReportFile()}.
+ *
+ * @since 10.1.0
+ */
+public class DockerExecContainers extends AbstractDockerRemoteApiTask {
+
+    /**
+     * The IDs or names of the containers to execute the commands in.
+     */
+    @Input
+    public final SetProperty<String> getContainerIds() {
+        return containerIds;
+    }
+
+    @Input
+    public final ListProperty<String[]> getCommands() {
+        return commands;
+    }
+
+    @Input
+    @Optional
+    public final Property<Boolean> getAttachStdout() {
+        return attachStdout;
+    }
+
+    @Input
+    @Optional
+    public final Property<Boolean> getAttachStderr() {
+        return attachStderr;
+    }
+
+    /**
+     * Username or UID to execute the commands as, with optional colon separated group or gid in format:
+     * &lt;name|uid&gt;[:&lt;group|gid&gt;]
+     */
+    @Input
+    @Optional
+    public final Property<String> getUser() {
+        return user;
+    }
+
+    /**
+     * Working directory in which the commands are going to be executed.
+     * Defaults to the WORKDIR set in docker file.
+     */
+    @Input
+    @Optional
+    public final Property<String> getWorkingDir() {
+        return workingDir;
+    }
+
+    @Input
+    @Optional
+    public final ListProperty<Integer> getSuccessOnExitCodes() {
+        return successOnExitCodes;
+    }
+
+    @Nested
+    @Optional
+    public ExecProbe getExecProbe() {
+        return execProbe;
+    }
+
+    public void setExecProbe(ExecProbe execProbe) {
+        this.execProbe = execProbe;
+    }
+
+    /**
+     * The maximum number of containers the commands are executed in at the same time.
+     * <p>
+     * Defaults to 4.
+     */
+    @Internal
+    public final Property<Integer> getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The JSON report listing the exec IDs, exit codes and failure per container.
+     */
+    @OutputFile
+    public final RegularFileProperty getReportFile() {
+        return reportFile;
+    }
+
+    /**
+     * The exec IDs per container, in the order of the commands. Only available after the task has run.
+     */
+    @Internal
+    public final Map<String, List<String>> getExecIds() {
+        return execIds;
+    }
+
+    private final SetProperty<String> containerIds = getProject().getObjects().setProperty(String.class);
+    private final ListProperty<String[]> commands = getProject().getObjects().listProperty(String[].class);
+    private final Property<Boolean> attachStdout = getProject().getObjects().property(Boolean.class);
+    private final Property<Boolean> attachStderr = getProject().getObjects().property(Boolean.class);
+    private final Property<String> user = getProject().getObjects().property(String.class);
+    private final Property<String> workingDir = getProject().getObjects().property(String.class);
+    private final ListProperty<Integer> successOnExitCodes = getProject().getObjects().listProperty(Integer.class);
+    private final Property<Integer> parallelism = getProject().getObjects().property(Integer.class);
+    private final RegularFileProperty reportFile = getProject().getObjects().fileProperty();
+    private ExecProbe execProbe;
+    private final Map<String, List<String>> execIds = new LinkedHashMap<>();
+
+    public DockerExecContainers() {
+        attachStdout.convention(true);
+        attachStderr.convention(true);
+        parallelism.convention(4);
+        final String safeTaskPath = getPath().replaceFirst("^:", "").replaceAll(":", "_");
+        reportFile.convention(getProject().getLayout().getBuildDirectory().file(".docker/" + safeTaskPath + "-report.json"));
+    }
+
+    /**
+     * Define the livenessProbe options for the execs.
+     *
+     * @param pollTime how long we will poll for
+     * @param pollInterval interval between poll requests
+     * @return instance of ExecProbe
+     */
+    public ExecProbe execProbe(final long pollTime, final long pollInterval) {
+        return this.execProbe = new ExecProbe(pollTime, pollInterval);
+    }
+
+    /**
+     * Define the livenessProbe options polling in exponentially increasing intervals for the execs.
+     *
+     * @param pollTime how long we will poll for
+     * @param initialPollInterval interval until the first poll request
+     * @param pollInterval maximum interval between poll requests
+     * @param backoffMultiplier factor the interval increases by after each poll request
+     * @return instance of ExecProbe
+     * @since 10.1.0
+     */
+    public ExecProbe execProbe(final long pollTime, final long initialPollInterval, final long pollInterval, final double backoffMultiplier) {
+        return this.execProbe = new ExecProbe(pollTime, initialPollInterval, pollInterval, backoffMultiplier);
+    }
+
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return containerIds.getOrElse(Collections.emptySet());
+    }
+
+    @Override
+    public void runRemoteCommand() throws InterruptedException {
+        List<String> localContainerIds = new ArrayList<>(containerIds.get());
+        getLogger().quiet("Executing on " + localContainerIds.size() + " containers.");
+        execIds.clear();
+        if (localContainerIds.isEmpty()) {
+            writeReport(Collections.emptyMap());
+            return;
+        }
+
+        ExecutorService executor = ConcurrencyUtils.newDaemonThreadPool("docker-exec", Math.min(parallelism.get(), localContainerIds.size()));
+        try {
+            List<Future<ContainerResult>> futures = new ArrayList<>();
+            for (String containerId : localContainerIds) {
+                futures.add(executor.submit(() -> runCommands(containerId)));
+            }
+
+            Map<String, ContainerResult> results = new LinkedHashMap<>();
+            List<String> failures = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                String containerId = localContainerIds.get(i);
+                ContainerResult result;
+                try {
+                    result = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    result = new ContainerResult();
+                    result.failure = ConcurrencyUtils.getMessage(e.getCause());
+                }
+                DockerExecSupport.replay(result.frames, DockerExecSupport.createCallback(getNextHandler(), getLogger()));
+                if (result.failure != null) {
+                    failures.add("Container '" + containerId + "': " + result.failure);
+                }
+                results.put(containerId, result);
+                execIds.put(containerId, result.execIds);
+            }
+
+            writeReport(results);
+            if (!failures.isEmpty()) {
+                throw new GradleException(failures.size() + " of " + localContainerIds.size() + " containers failed:\n" + String.join("\n", failures));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs all commands within one container. Stops at the first command that fails or has an unsuccessful exit code.
+     */
+    private ContainerResult runCommands(String containerId) throws InterruptedException {
+        ContainerResult result = new ContainerResult();
+        DockerClientService service = getDockerClientService().get();
+        // each container is leased on its own host, so that the execs count as in flight on that host
+        try (DockerClientService.HostLease lease = getUrl().isPresent() ? null : service.acquireHost(Collections.singletonList(containerId))) {
+            DockerClient dockerClient = lease != null
+                    ? service.getDockerClient(getUrl().orElse(lease.getUrl()), getCertPath(), getApiVersion())
+                    : getDockerClient();
+
+            for (String[] singleCommand : commands.get()) {
+                try {
+                    ExecCreateCmd execCmd = dockerClient.execCreateCmd(containerId);
+                    DockerExecSupport.setContainerCommandConfig(execCmd, singleCommand, attachStdout, attachStderr, user, workingDir);
+                    String execId = execCmd.exec().getId();
+                    result.execIds.add(execId);
+                    if (lease != null) {
+                        service.bindToHost(execId, lease.getUrl());
+                    }
+
+                    DockerExecSupport.BufferingCallback callback = new DockerExecSupport.BufferingCallback();
+                    dockerClient.execStartCmd(execId).withDetach(false).exec(callback).awaitCompletion();
+                    result.frames.addAll(callback.getFrames());
+
+                    InspectExecResponse response = DockerExecSupport.awaitExecFinished(dockerClient, execId, singleCommand, execProbe, () -> getProgressLogger(getServices(), DockerExecContainers.class));
+                    result.exitCodes.add(response.getExitCodeLong());
+                    String failure = DockerExecSupport.checkExitCode(successOnExitCodes.getOrNull(), response);
+                    if (failure != null) {
+                        result.failure = "Exec '" + Arrays.toString(singleCommand) + "': " + failure;
+                        break;
+                    }
+                } catch (RuntimeException e) {
+                    result.failure = "Exec '" + Arrays.toString(singleCommand) + "': " + e.getMessage();
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void writeReport(Map<String, ContainerResult> results) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        results.forEach((containerId, result) -> {
+            Map<String, Object> containerReport = new LinkedHashMap<>();
+            containerReport.put("execIds", result.execIds);
+            containerReport.put("exitCodes", result.exitCodes);
+            containerReport.put("failure", result.failure);
+            report.put(containerId, containerReport);
+        });
+
+        File file = reportFile.get().getAsFile();
+        file.getParentFile().mkdirs();
+        try {
+            JsonMapper.builder().build().writerWithDefaultPrettyPrinter().writeValue(file, Collections.singletonMap("containers", report));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write exec report", e);
+        }
+    }
+
+    private static class ContainerResult {
+        private final List<String> execIds = new ArrayList<>();
+        private final List<Long> exitCodes = new ArrayList<>();
+        private final List<Frame> frames = new ArrayList<>();
+        private String failure;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container;
+
+import com.bmuschko.gradle.docker.domain.ExecProbe;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.ExecCreateCmd;
+import com.github.dockerjava.api.command.InspectExecResponse;
+import com.github.dockerjava.api.model.Frame;
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.provider.Provider;
+import org.gradle.internal.logging.progress.ProgressLogger;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Shared implementation of the tasks running execs in containers.
+ */
+final class DockerExecSupport {
+
+    private static final int FINALIZATION_RETRIES = 5;
+    private static final long FINALIZATION_INITIAL_DELAY_MILLIS = 10;
+
+    private DockerExecSupport() { }
+
+    /**
+     * Configures the command of an exec and how it is run.
+     */
+    static void setContainerCommandConfig(ExecCreateCmd containerCommand, @Nullable String[] commandToExecute, Provider<Boolean> attachStdout, Provider<Boolean> attachStderr, Provider<String> user, Provider<String> workingDir) {
+        if (commandToExecute != null) {
+            containerCommand.withCmd(commandToExecute);
+        }
+
+        if (Boolean.TRUE.equals(attachStderr.getOrNull())) {
+            containerCommand.withAttachStderr(attachStderr.get());
+        }
+
+        if (Boolean.TRUE.equals(attachStdout.getOrNull())) {
+            containerCommand.withAttachStdout(attachStdout.get());
+        }
+
+        if (user.getOrNull() != null) {
+            containerCommand.withUser(user.get());
+        }
+
+        if (workingDir.getOrNull() != null) {
+            containerCommand.withWorkingDir(workingDir.get());
+        }
+    }
+
+    /**
+     * Reads the result of an exec whose attached stream has completed.
+     * <p>
+     * The exit code is usually final once the stream has completed. The daemon may take a few milliseconds to
+     * finalize the exec though, so it is inspected again after short delays. Only if the exec is still running
+     * afterwards, e.g. because the command closed its output before exiting, it is polled according to the exec probe.
+     */
+    static InspectExecResponse awaitExecFinished(DockerClient dockerClient, String execId, String[] command, @Nullable ExecProbe execProbe, Supplier<ProgressLogger> progressLoggerFactory) throws InterruptedException {
+        InspectExecResponse lastExecResponse = dockerClient.inspectExecCmd(execId).exec();
+        long delay = FINALIZATION_INITIAL_DELAY_MILLIS;
+        for (int retry = 0; retry < FINALIZATION_RETRIES && Boolean.TRUE.equals(lastExecResponse.isRunning()); retry++) {
+            Thread.sleep(delay);
+            delay *= 2;
+            lastExecResponse = dockerClient.inspectExecCmd(execId).exec();
+        }
+        if (!Boolean.TRUE.equals(lastExecResponse.isRunning())) {
+            return lastExecResponse;
+        }
+
+        // create progressLogger for pretty printing of terminal log progression.
+        final ProgressLogger progressLogger = progressLoggerFactory.get();
+        progressLogger.started();
+
+        // if no livenessProbe defined then create a default
+        final ExecProbe localProbe = execProbe != null ? execProbe : new ExecProbe(60000, 50, 2000, 2);
+
+        final long started = System.nanoTime();
+        final long deadline = started + TimeUnit.MILLISECONDS.toNanos(localProbe.getPollTime());
+        long pollInterval = localProbe.getInitialPollInterval();
+        boolean isRunning = true;
+
+        // poll in increasing intervals until the exec is in a non-running state or the poll time has passed.
+        long remaining;
+        while (isRunning && (remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+            final long totalMinutes = TimeUnit.NANOSECONDS.toMinutes(System.nanoTime() - started);
+            progressLogger.progress("Executing for " + totalMinutes + "m...");
+            Thread.sleep(Math.min(pollInterval, remaining));
+            pollInterval = localProbe.nextPollInterval(pollInterval);
+
+            lastExecResponse = dockerClient.inspectExecCmd(execId).exec();
+            isRunning = Boolean.TRUE.equals(lastExecResponse.isRunning());
+        }
+        progressLogger.completed();
+
+        if (isRunning) {
+            throw new GradleException("Exec '" + Arrays.toString(command) + "' did not finish in a timely fashion: " + localProbe);
+        }
+        return lastExecResponse;
+    }
+
+    /**
+     * Checks the exit code of a finished exec against the successful exit codes.
+     *
+     * @return The failure message or null if the exit code is successful
+     */
+    @Nullable
+    static String checkExitCode(@Nullable List<Integer> successOnExitCodes, InspectExecResponse lastExecResponse) {
+        if (successOnExitCodes != null && !successOnExitCodes.isEmpty()) {
+            int exitCode = lastExecResponse.getExitCodeLong() != null ? lastExecResponse.getExitCodeLong().intValue() : 0;
+            if (!successOnExitCodes.contains(exitCode)) {
+                return exitCode + " is not a successful exit code. Valid values are " + successOnExitCodes + ", response=" + lastExecResponse;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the callback passing the exec output to the next handler if defined, or to standard out/err otherwise.
+     */
+    static ResultCallback.Adapter<Frame> createCallback(@Nullable final Action nextHandler, final Logger logger) {
+        if (nextHandler != null) {
+            return new ResultCallback.Adapter<Frame>() {
+                @Override
+                public void onNext(Frame frame) {
+                    try {
+                        nextHandler.execute(frame);
+                    } catch (Exception e) {
+                        logger.error("Failed to handle frame", e);
+                        return;
+                    }
+                    super.onNext(frame);
+                }
+            };
+        }
+
+        return new ResultCallback.Adapter<Frame>() {
+            @Override
+            public void onNext(Frame frame) {
+                if (frame != null) {
+                    switch (frame.getStreamType()) {
+                        case STDOUT:
+                        case RAW:
+                            try {
+                                System.out.write(frame.getPayload());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            System.out.flush();
+                            break;
+                        case STDERR:
+                            try {
+                                System.err.write(frame.getPayload());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            System.err.flush();
+                            break;
+                        default:
+                            logger.error("unknown stream type:" + frame.getStreamType());
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Passes buffered frames on to a callback.
+     */
+    static void replay(List<Frame> frames, ResultCallback.Adapter<Frame> callback) {
+        try (ResultCallback.Adapter<Frame> output = callback) {
+            for (Frame frame : frames) {
+                output.onNext(frame);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Collects the exec output so that it can be written once the exec has finished.
+     */
+    static class BufferingCallback extends ResultCallback.Adapter<Frame> {
+        private final List<Frame> frames = new ArrayList<>();
+
+        @Override
+        public void onNext(Frame frame) {
+            if (frame != null) {
+                frames.add(frame);
+            }
+        }
+
+        List<Frame> getFrames() {
+            return frames;
+        }
+    }
+}
@@ -20,6 +20,8 @@ import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.Callable;
 
 public abstract class DockerExistingContainer extends AbstractDockerRemoteApiTask {
@@ -65,4 +67,9 @@ public abstract class DockerExistingContainer extends AbstractDockerRemoteApiTas
     }
 
     private final Property<String> containerId = getProject().getObjects().property(String.class);
+
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return containerId.isPresent() ? Collections.singletonList(containerId.get()) : Collections.emptyList();
+    }
 }
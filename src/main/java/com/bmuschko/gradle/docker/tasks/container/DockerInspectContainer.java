@@ -33,6 +33,11 @@ public class DockerInspectContainer extends DockerExistingContainer {
         defaultResponseHandling();
     }
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Inspecting container with ID '" + getContainerId().get() + "'.");
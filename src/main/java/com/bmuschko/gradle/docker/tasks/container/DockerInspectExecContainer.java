@@ -6,6 +6,8 @@ import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.Callable;
 
 /**
@@ -58,6 +60,16 @@ public class DockerInspectExecContainer extends AbstractDockerRemoteApiTask {
 
     private final Property<String> execId = getProject().getObjects().property(String.class);
 
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return execId.isPresent() ? Collections.singletonList(execId.get()) : Collections.emptyList();
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Inspecting exec with ID '" + getExecId().get() + "'.");
@@ -15,6 +15,10 @@
  */
 package com.bmuschko.gradle.docker.tasks.container;
 
+import com.bmuschko.gradle.docker.internal.BufferedLogSink;
+import com.bmuschko.gradle.docker.internal.LogMessageMatcher;
+import com.bmuschko.gradle.docker.internal.NdjsonLogEncoder;
+import com.bmuschko.gradle.docker.internal.OutputCollector;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.LogContainerCmd;
@@ -29,11 +33,19 @@ import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputFile;
 
+import javax.annotation.Nullable;
+import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * Copies the container logs into standard out/err, the same as the `docker logs` command. The container output
@@ -115,6 +127,8 @@ public class DockerLogsContainer extends DockerExistingContainer {
 
     /**
      * Sink to write log output into.
+     * <p>
+     * Receives the output of all streams that have no dedicated sink configured with {@link #getStdOutSink()} or {@link #getStdErrSink()}.
      */
     @OutputFile
     @Optional
@@ -122,6 +136,137 @@ public class DockerLogsContainer extends DockerExistingContainer {
         return sink;
     }
 
+    /**
+     * Sink to write the standard out of the container into.
+     * <p>
+     * Defaults to unspecified, which writes standard out to {@link #getSink()}.
+     *
+     * @since 10.1.0
+     */
+    @OutputFile
+    @Optional
+    public final RegularFileProperty getStdOutSink() {
+        return stdOutSink;
+    }
+
+    /**
+     * Sink to write the standard err of the container into.
+     * <p>
+     * Defaults to unspecified, which writes standard err to {@link #getSink()}.
+     *
+     * @since 10.1.0
+     */
+    @OutputFile
+    @Optional
+    public final RegularFileProperty getStdErrSink() {
+        return stdErrSink;
+    }
+
+    /**
+     * Set to true to write sinks as newline-delimited JSON with one record per line, containing the stream,
+     * the timestamp and the payload, e.g. {@code {"stream":"stderr","timestamp":"2024-01-01T12:00:00Z","payload":"Failed"}}.
+     * <p>
+     * The timestamp is taken from the output if {@link #getShowTimestamps()} is true, otherwise it is the time the line has been received.
+     * <p>
+     * Defaults to false, which writes the raw output.
+     *
+     * @since 10.1.0
+     */
+    @Input
+    public final Property<Boolean> getSinkNdjson() {
+        return sinkNdjson;
+    }
+
+    /**
+     * The number of bytes buffered before they are written to the sink.
+     * <p>
+     * Defaults to 64 KiB.
+     *
+     * @since 10.1.0
+     */
+    @Input
+    public final Property<Integer> getSinkBufferSize() {
+        return sinkBufferSize;
+    }
+
+    /**
+     * The interval in which buffered output is written to the sink, so that the sink can be followed while the logs are streamed.
+     * <p>
+     * Defaults to 1 second.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final Property<Duration> getSinkFlushInterval() {
+        return sinkFlushInterval;
+    }
+
+    /**
+     * Set to true to compress the sink with gzip.
+     * <p>
+     * Defaults to false.
+     *
+     * @since 10.1.0
+     */
+    @Input
+    public final Property<Boolean> getSinkCompressed() {
+        return sinkCompressed;
+    }
+
+    /**
+     * The size in bytes after which the sink is rotated. Rotated files are named after the sink with an increasing index,
+     * e.g. {@code container.1.log}. The size may be exceeded by up to the buffer size.
+     * <p>
+     * Defaults to unspecified, which never rotates the sink.
+     *
+     * @since 10.1.0
+     */
+    @Input
+    @Optional
+    public final Property<Long> getSinkMaxSize() {
+        return sinkMaxSize;
+    }
+
+    /**
+     * Follow the output until it contains this message and complete the task as soon as it is found.
+     * This cannot be set if #waitForLogPattern is also set. Implies #follow.
+     * <p>
+     * Defaults to unspecified, which does not wait for any output.
+     *
+     * @since 10.1.0
+     */
+    @Input
+    @Optional
+    public final Property<String> getWaitForLogMessage() {
+        return waitForLogMessage;
+    }
+
+    /**
+     * Follow the output until a line matches this regular expression and complete the task as soon as it is found.
+     * The expression is searched for within each line. This cannot be set if #waitForLogMessage is also set. Implies #follow.
+     * <p>
+     * Defaults to unspecified, which does not wait for any output.
+     *
+     * @since 10.1.0
+     */
+    @Input
+    @Optional
+    public final Property<String> getWaitForLogPattern() {
+        return waitForLogPattern;
+    }
+
+    /**
+     * The maximum time to wait for #waitForLogMessage or #waitForLogPattern. The task fails if the output did not match in time.
+     * <p>
+     * Defaults to unspecified, which waits until the container exits.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final Property<Duration> getWaitForLogTimeout() {
+        return waitForLogTimeout;
+    }
+
     @Internal
     protected Date getInternalSince() {
         return since.getOrNull();
@@ -135,10 +280,24 @@ public class DockerLogsContainer extends DockerExistingContainer {
     private final Property<Boolean> showTimestamps = getProject().getObjects().property(Boolean.class);
     private final Property<Date> since = getProject().getObjects().property(Date.class);
     private RegularFileProperty sink = getProject().getObjects().fileProperty();
+    private final RegularFileProperty stdOutSink = getProject().getObjects().fileProperty();
+    private final RegularFileProperty stdErrSink = getProject().getObjects().fileProperty();
+    private final Property<Boolean> sinkNdjson = getProject().getObjects().property(Boolean.class);
+    private final Property<Integer> sinkBufferSize = getProject().getObjects().property(Integer.class);
+    private final Property<Duration> sinkFlushInterval = getProject().getObjects().property(Duration.class);
+    private final Property<Boolean> sinkCompressed = getProject().getObjects().property(Boolean.class);
+    private final Property<Long> sinkMaxSize = getProject().getObjects().property(Long.class);
+    private final Property<String> waitForLogMessage = getProject().getObjects().property(String.class);
+    private final Property<String> waitForLogPattern = getProject().getObjects().property(String.class);
+    private final Property<Duration> waitForLogTimeout = getProject().getObjects().property(Duration.class);
 
     public DockerLogsContainer() {
         stdOut.convention(true);
         stdErr.convention(true);
+        sinkBufferSize.convention(64 * 1024);
+        sinkFlushInterval.convention(Duration.ofSeconds(1));
+        sinkCompressed.convention(false);
+        sinkNdjson.convention(false);
     }
 
     @Override
@@ -153,32 +312,112 @@ public class DockerLogsContainer extends DockerExistingContainer {
     public void logAndProcessResponse(DockerClient dockerClient) throws InterruptedException {
         LogContainerCmd logCommand = dockerClient.logContainerCmd(getContainerId().get());
         setContainerCommandConfig(logCommand);
-        logCommand.exec(createCallback(getNextHandler())).awaitCompletion();
+        if (waitForLogMessage.isPresent() || waitForLogPattern.isPresent()) {
+            awaitLogMessage(logCommand);
+            return;
+        }
+        try (ResultCallback.Adapter<Frame> callback = createCallback(getNextHandler())) {
+            logCommand.exec(callback).awaitCompletion();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private ResultCallback.Adapter<Frame> createCallback(final Action nextHandler) {
-        if (sink.isPresent() && nextHandler != null) {
-            throw new GradleException("Define either sink or onNext");
+    private void awaitLogMessage(LogContainerCmd logCommand) throws InterruptedException {
+        String expected = waitForLogMessage.isPresent() ? "message '" + waitForLogMessage.get() + "'" : "pattern '" + waitForLogPattern.get() + "'";
+        getLogger().info("Waiting for log " + expected + " of container with ID '" + getContainerId().get() + "'.");
+        logCommand.withFollowStream(true);
+        try (MatchingCallback callback = new MatchingCallback(createCallback(getNextHandler()), createLogMessageMatcher(), createLogMessageMatcher())) {
+            logCommand.exec(callback);
+            if (waitForLogTimeout.isPresent()) {
+                if (!callback.awaitCompletion(waitForLogTimeout.get().toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new GradleException("Log " + expected + " not found within " + waitForLogTimeout.get() + " for container with ID '" + getContainerId().get() + "'.");
+                }
+            } else {
+                callback.awaitCompletion();
+            }
+            if (!callback.isMatched()) {
+                throw new GradleException("Log " + expected + " not found before log stream of container with ID '" + getContainerId().get() + "' ended.");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        if (sink.isPresent()) {
-            return new ResultCallback.Adapter<Frame>() {
-                @Override
-                public void onNext(Frame frame) {
-                    switch (frame.getStreamType()) {
-                        case STDOUT:
-                        case RAW:
-                        case STDERR:
-                            try {
-                                Files.write(sink.get().getAsFile().toPath(), frame.getPayload(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-                            } catch (IOException e) {
-                                throw new UncheckedIOException(e);
-                            }
-                            break;
-                    }
-                    super.onNext(frame);
+        getLogger().quiet("Found log " + expected + " of container with ID '" + getContainerId().get() + "'.");
+    }
+
+    private LogMessageMatcher createLogMessageMatcher() {
+        if (waitForLogMessage.isPresent() && waitForLogPattern.isPresent()) {
+            throw new InvalidUserDataException("Conflicting parameters: only one of waitForLogMessage and waitForLogPattern can be specified");
+        }
+        return waitForLogMessage.isPresent()
+                ? LogMessageMatcher.literal(waitForLogMessage.get())
+                : LogMessageMatcher.regex(Pattern.compile(waitForLogPattern.get()));
+    }
+
+    /**
+     * Passes frames on to the configured callback and completes the stream as soon as the output matched.
+     */
+    private static class MatchingCallback extends ResultCallback.Adapter<Frame> {
+        private final ResultCallback.Adapter<Frame> delegate;
+        private final LogMessageMatcher stdOutMatcher;
+        private final LogMessageMatcher stdErrMatcher;
+        private volatile boolean matched;
+
+        private MatchingCallback(ResultCallback.Adapter<Frame> delegate, LogMessageMatcher stdOutMatcher, LogMessageMatcher stdErrMatcher) {
+            this.delegate = delegate;
+            this.stdOutMatcher = stdOutMatcher;
+            this.stdErrMatcher = stdErrMatcher;
+        }
+
+        @Override
+        public void onNext(Frame frame) {
+            delegate.onNext(frame);
+            switch (frame.getStreamType()) {
+                case STDOUT:
+                case RAW:
+                    matched |= stdOutMatcher.accept(frame.getPayload());
+                    break;
+                case STDERR:
+                    matched |= stdErrMatcher.accept(frame.getPayload());
+                    break;
+            }
+            if (matched) {
+                // Closing the callback ends the followed stream and releases #awaitCompletion
+                try {
+                    close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
+            }
+        }
 
-            };
+        @Override
+        public void onComplete() {
+            matched = matched || stdOutMatcher.finish() || stdErrMatcher.finish();
+            super.onComplete();
+        }
+
+        private boolean isMatched() {
+            return matched;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                super.close();
+            }
+        }
+    }
+
+    private ResultCallback.Adapter<Frame> createCallback(final Action nextHandler) {
+        boolean sinkPresent = sink.isPresent() || stdOutSink.isPresent() || stdErrSink.isPresent();
+        if (sinkPresent && nextHandler != null) {
+            throw new GradleException("Define either sink or onNext");
+        }
+        if (sinkPresent) {
+            return createSinkCallback();
         }
 
         if (nextHandler != null) {
@@ -193,23 +432,122 @@ public class DockerLogsContainer extends DockerExistingContainer {
         }
 
         return new ResultCallback.Adapter<Frame>() {
+            private final OutputCollector stdOutCollector = new OutputCollector(line -> getLogger().quiet(line));
+            private final OutputCollector stdErrCollector = new OutputCollector(line -> getLogger().error(line));
+
             @Override
             public void onNext(Frame frame) {
                 switch (frame.getStreamType()) {
                     case STDOUT:
                     case RAW:
-                        getLogger().quiet(new String(frame.getPayload()).replaceFirst( "/\\s+$/", ""));
+                        stdOutCollector.accept(frame.getPayload());
                         break;
                     case STDERR:
-                        getLogger().error(new String(frame.getPayload()).replaceFirst("/\\s+$/", ""));
+                        stdErrCollector.accept(frame.getPayload());
                         break;
                 }
                 super.onNext(frame);
             }
 
+            @Override
+            public void close() throws IOException {
+                stdOutCollector.close();
+                stdErrCollector.close();
+                super.close();
+            }
+        };
+    }
+
+    private ResultCallback.Adapter<Frame> createSinkCallback() {
+        final List<AutoCloseable> closeables = new ArrayList<>();
+        BufferedLogSink sharedSink = sink.isPresent() ? createLogSink(sink.get().getAsFile()) : null;
+        BufferedLogSink stdOutLogSink = stdOutSink.isPresent() ? createLogSink(stdOutSink.get().getAsFile()) : sharedSink;
+        BufferedLogSink stdErrLogSink = stdErrSink.isPresent() ? createLogSink(stdErrSink.get().getAsFile()) : sharedSink;
+        final FrameWriter stdOutWriter = createFrameWriter(stdOutLogSink, "stdout", closeables);
+        final FrameWriter stdErrWriter = createFrameWriter(stdErrLogSink, "stderr", closeables);
+        // Sinks are closed after the encoders writing into them
+        for (BufferedLogSink logSink : new LinkedHashSet<>(Arrays.asList(sharedSink, stdOutLogSink, stdErrLogSink))) {
+            if (logSink != null) {
+                closeables.add(logSink);
+            }
+        }
+
+        return new ResultCallback.Adapter<Frame>() {
+            private final OutputCollector stdOutCollector = new OutputCollector(line -> getLogger().quiet(line));
+            private final OutputCollector stdErrCollector = new OutputCollector(line -> getLogger().error(line));
+
+            @Override
+            public void onNext(Frame frame) {
+                try {
+                    switch (frame.getStreamType()) {
+                        case STDOUT:
+                        case RAW:
+                            if (stdOutWriter != null) {
+                                stdOutWriter.write(frame.getPayload());
+                            } else {
+                                stdOutCollector.accept(frame.getPayload());
+                            }
+                            break;
+                        case STDERR:
+                            if (stdErrWriter != null) {
+                                stdErrWriter.write(frame.getPayload());
+                            } else {
+                                stdErrCollector.accept(frame.getPayload());
+                            }
+                            break;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                super.onNext(frame);
+            }
+
+            @Override
+            public void close() throws IOException {
+                stdOutCollector.close();
+                stdErrCollector.close();
+                IOException failure = null;
+                for (AutoCloseable closeable : closeables) {
+                    try {
+                        closeable.close();
+                    } catch (Exception e) {
+                        IOException ioException = e instanceof IOException ? (IOException) e : new IOException(e);
+                        if (failure == null) {
+                            failure = ioException;
+                        } else {
+                            failure.addSuppressed(ioException);
+                        }
+                    }
+                }
+                super.close();
+                if (failure != null) {
+                    throw failure;
+                }
+            }
         };
     }
 
+    private BufferedLogSink createLogSink(File file) {
+        return new BufferedLogSink(file, sinkBufferSize.get(), sinkFlushInterval.getOrNull(), sinkCompressed.get(), sinkMaxSize.getOrElse(0L));
+    }
+
+    @Nullable
+    private FrameWriter createFrameWriter(@Nullable BufferedLogSink logSink, String stream, List<AutoCloseable> closeables) {
+        if (logSink == null) {
+            return null;
+        }
+        if (sinkNdjson.get()) {
+            NdjsonLogEncoder encoder = new NdjsonLogEncoder(logSink, stream, Boolean.TRUE.equals(showTimestamps.getOrNull()), Clock.systemUTC());
+            closeables.add(encoder);
+            return encoder::write;
+        }
+        return logSink::write;
+    }
+
+    private interface FrameWriter {
+        void write(byte[] payload) throws IOException;
+    }
+
     private void setContainerCommandConfig(LogContainerCmd logsCommand) {
         if (follow.getOrNull() != null) {
             logsCommand.withFollowStream(follow.get());
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.container;
+
+import com.bmuschko.gradle.docker.internal.ConcurrencyUtils;
+import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.RemoveContainerCmd;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.exception.NotModifiedException;
+import org.gradle.api.GradleException;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Stops and removes many containers concurrently, for example the containers started by a {@link DockerContainerGroup}:
+ * <pre>
+ * containerIds.addAll(startContainers.containerIds.map { it.values() })
+ * </pre>
+ * Containers that are already stopped or do not exist anymore are skipped. The task fails after all containers have
+ * been processed if any container could not be removed.
+ *
+ * @since 10.1.0
+ */
+public class DockerRemoveContainerGroup extends AbstractDockerRemoteApiTask {
+
+    /**
+     * The IDs or names of the containers to remove.
+     */
+    @Input
+    public final SetProperty<String> getContainerIds() {
+        return containerIds;
+    }
+
+    /**
+     * Whether the containers are stopped before they are removed.
+     * <p>
+     * Defaults to true.
+     */
+    @Input
+    public final Property<Boolean> getStop() {
+        return stop;
+    }
+
+    /**
+     * Stop timeout in seconds.
+     */
+    @Input
+    @Optional
+    public final Property<Integer> getWaitTime() {
+        return waitTime;
+    }
+
+    @Input
+    @Optional
+    public final Property<Boolean> getRemoveVolumes() {
+        return removeVolumes;
+    }
+
+    @Input
+    @Optional
+    public final Property<Boolean> getForce() {
+        return force;
+    }
+
+    /**
+     * The maximum number of containers stopped or removed at the same time.
+     * <p>
+     * Defaults to 8.
+     */
+    @Internal
+    public final Property<Integer> getParallelism() {
+        return parallelism;
+    }
+
+    private final SetProperty<String> containerIds = getProject().getObjects().setProperty(String.class);
+    private final Property<Boolean> stop = getProject().getObjects().property(Boolean.class);
+    private final Property<Integer> waitTime = getProject().getObjects().property(Integer.class);
+    private final Property<Boolean> removeVolumes = getProject().getObjects().property(Boolean.class);
+    private final Property<Boolean> force = getProject().getObjects().property(Boolean.class);
+    private final Property<Integer> parallelism = getProject().getObjects().property(Integer.class);
+
+    public DockerRemoveContainerGroup() {
+        stop.convention(true);
+        parallelism.convention(8);
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return containerIds.getOrElse(Collections.emptySet());
+    }
+
+    @Override
+    public void runRemoteCommand() throws InterruptedException {
+        List<String> localContainerIds = new ArrayList<>(containerIds.get());
+        getLogger().quiet("Removing " + localContainerIds.size() + " containers.");
+        if (localContainerIds.isEmpty()) {
+            return;
+        }
+
+        DockerClient dockerClient = getDockerClient();
+        ExecutorService executor = ConcurrencyUtils.newDaemonThreadPool("docker-remove-container", Math.min(parallelism.get(), localContainerIds.size()));
+        try {
+            Map<String, Future<?>> removals = new LinkedHashMap<>();
+            for (String containerId : localContainerIds) {
+                removals.put(containerId, executor.submit(() -> removeContainer(dockerClient, containerId)));
+            }
+            ConcurrencyUtils.awaitAll(removals, containerId -> "Container '" + containerId + "'", "containers could not be removed");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void removeContainer(DockerClient dockerClient, String containerId) {
+        try {
+            if (stop.get()) {
+                try {
+                    DockerStopContainer._runRemoteCommand(dockerClient, containerId, waitTime.getOrNull());
+                } catch (NotModifiedException ignored) {
+                    // the container is not running
+                }
+            }
+
+            RemoveContainerCmd containerCommand = dockerClient.removeContainerCmd(containerId);
+            if (Boolean.TRUE.equals(removeVolumes.getOrNull())) {
+                containerCommand.withRemoveVolumes(removeVolumes.get());
+            }
+            if (Boolean.TRUE.equals(force.getOrNull())) {
+                containerCommand.withForce(force.get());
+            }
+            containerCommand.exec();
+            getLogger().quiet("Removed container with ID '" + containerId + "'.");
+        } catch (NotFoundException e) {
+            getLogger().info("Container with ID '" + containerId + "' does not exist anymore.");
+        }
+    }
+}
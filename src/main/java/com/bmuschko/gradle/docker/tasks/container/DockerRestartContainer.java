@@ -32,6 +32,11 @@ public class DockerRestartContainer extends DockerExistingContainer {
 
     private final Property<Integer> waitTime = getProject().getObjects().property(Integer.class);
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Restarting container with ID '" + getContainerId().get() + "'.");
@@ -34,6 +34,11 @@ public class DockerStopContainer extends DockerExistingContainer {
 
     private final Property<Integer> waitTime = getProject().getObjects().property(Integer.class);
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Stopping container with ID '" + getContainerId().get() + "'.");
@@ -41,6 +41,11 @@ public class DockerWaitContainer extends DockerExistingContainer {
 
     private final Property<Integer> awaitStatusTimeout = getProject().getObjects().property(Integer.class);
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         final String possibleTimeout = awaitStatusTimeout.getOrNull() != null ? " for " + getAwaitStatusTimeout().get() + " seconds" : "";
@@ -18,6 +18,7 @@ package com.bmuschko.gradle.docker.tasks.image;
 import com.bmuschko.gradle.docker.DockerRegistryCredentials;
 import com.bmuschko.gradle.docker.internal.OutputCollector;
 import com.bmuschko.gradle.docker.internal.RegularFileToStringTransformer;
+import com.bmuschko.gradle.docker.internal.services.DockerOperationCategory;
 import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
 import com.bmuschko.gradle.docker.tasks.RegistryCredentialsAware;
 import com.github.dockerjava.api.command.BuildImageCmd;
@@ -46,6 +47,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -336,6 +339,21 @@ public class DockerBuildImage extends AbstractDockerRemoteApiTask implements Reg
         }
     };
 
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return images.getOrElse(Collections.emptySet());
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected DockerOperationCategory getOperationCategory() {
+        return DockerOperationCategory.BUILD;
+    }
+
     @Override
     public void runRemoteCommand() throws Exception {
         getLogger().quiet("Building image using context '" + getInputDir().get().getAsFile() + "'.");
@@ -416,6 +434,7 @@ public class DockerBuildImage extends AbstractDockerRemoteApiTask implements Reg
         String createdImageId = buildImageCmd.exec(createCallback(getNextHandler())).awaitImageId();
         imageIdFile.get().getAsFile().getParentFile().mkdirs();
         Files.writeString(imageIdFile.get().getAsFile().toPath(), createdImageId);
+        bindToSelectedHost(createdImageId);
         getLogger().quiet("Created image with ID '" + createdImageId + "'.");
     }
 
@@ -16,6 +16,7 @@
 package com.bmuschko.gradle.docker.tasks.image;
 
 import com.bmuschko.gradle.docker.internal.RegularFileToStringTransformer;
+import com.bmuschko.gradle.docker.internal.services.DockerOperationCategory;
 import com.bmuschko.gradle.docker.tasks.container.DockerExistingContainer;
 import com.github.dockerjava.api.command.CommitCmd;
 import org.gradle.api.file.RegularFileProperty;
@@ -130,6 +131,11 @@ public class DockerCommitImage extends DockerExistingContainer {
         imageIdFile.convention(getProject().getLayout().getBuildDirectory().file(".docker/" + safeTaskPath + "-imageId.txt"));
     }
 
+    @Override
+    protected DockerOperationCategory getOperationCategory() {
+        return DockerOperationCategory.BUILD;
+    }
+
     @Override
     public void runRemoteCommand() throws IOException {
         getLogger().quiet("Committing image '" + getRepository().get() + ":" + getTag().get() + "' for container '" + getContainerId().get() + "'.");
@@ -158,6 +164,7 @@ public class DockerCommitImage extends DockerExistingContainer {
         }
 
         String createdImageId = commitCmd.exec();
+        bindToSelectedHost(createdImageId);
         Files.write(imageIdFile.get().getAsFile().toPath(), createdImageId.getBytes());
         getLogger().quiet("Created image with ID '" + createdImageId + "'.");
         if (getNextHandler() != null) {
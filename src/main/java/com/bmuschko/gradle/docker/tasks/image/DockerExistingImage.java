@@ -21,6 +21,8 @@ import org.gradle.api.provider.Provider;
 import org.gradle.api.provider.ProviderFactory;
 import org.gradle.api.tasks.Input;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.Callable;
 
 public abstract class DockerExistingImage extends AbstractDockerRemoteApiTask {
@@ -68,4 +70,9 @@ public abstract class DockerExistingImage extends AbstractDockerRemoteApiTask {
     public void targetImageId(Provider<String> imageId) {
         this.imageId.set(imageId);
     }
+
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return imageId.isPresent() ? Collections.singletonList(imageId.get()) : Collections.emptyList();
+    }
 }
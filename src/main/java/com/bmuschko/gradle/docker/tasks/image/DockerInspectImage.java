@@ -24,6 +24,11 @@ public class DockerInspectImage extends DockerExistingImage {
         defaultResponseHandling();
     }
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Inspecting image with ID '" + getImageId().get() + "'.");
@@ -69,6 +69,11 @@ public class DockerListImages extends AbstractDockerRemoteApiTask {
 
     private final Property<String> imageName = getProject().getObjects().property(String.class);
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         ListImagesCmd listImagesCmd = getDockerClient().listImagesCmd();
@@ -1,5 +1,6 @@
 package com.bmuschko.gradle.docker.tasks.image;
 
+import com.bmuschko.gradle.docker.internal.services.DockerOperationCategory;
 import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.tasks.InputFile;
@@ -16,6 +17,16 @@ public class DockerLoadImage extends AbstractDockerRemoteApiTask {
 
     private final RegularFileProperty imageFile = getProject().getObjects().fileProperty();
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected DockerOperationCategory getOperationCategory() {
+        return DockerOperationCategory.TRANSFER;
+    }
+
     @Override
     public void runRemoteCommand() throws IOException {
         getDockerClient().loadImageCmd(new FileInputStream(imageFile.get().getAsFile())).exec();
@@ -16,6 +16,7 @@
 package com.bmuschko.gradle.docker.tasks.image;
 
 import com.bmuschko.gradle.docker.DockerRegistryCredentials;
+import com.bmuschko.gradle.docker.internal.services.DockerOperationCategory;
 import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
 import com.bmuschko.gradle.docker.tasks.RegistryCredentialsAware;
 import com.github.dockerjava.api.command.PullImageCmd;
@@ -27,6 +28,9 @@ import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Optional;
 
+import java.util.Collection;
+import java.util.Collections;
+
 public class DockerPullImage extends AbstractDockerRemoteApiTask implements RegistryCredentialsAware {
 
     /**
@@ -68,6 +72,21 @@ public class DockerPullImage extends AbstractDockerRemoteApiTask implements Regi
         registryCredentials = getProject().getObjects().newInstance(DockerRegistryCredentials.class, getProject().getObjects());
     }
 
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return image.isPresent() ? Collections.singletonList(image.get()) : Collections.emptyList();
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected DockerOperationCategory getOperationCategory() {
+        return DockerOperationCategory.TRANSFER;
+    }
+
     @Override
     public void runRemoteCommand() throws InterruptedException {
         AuthConfig authConfig = getRegistryAuthLocator().lookupAuthConfig(image.get(), registryCredentials);
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.image;
+
+import com.bmuschko.gradle.docker.DockerRegistryCredentials;
+import com.bmuschko.gradle.docker.internal.ConcurrencyUtils;
+import com.bmuschko.gradle.docker.internal.RegistryManifestClient;
+import com.bmuschko.gradle.docker.internal.services.DockerOperationCategory;
+import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
+import com.bmuschko.gradle.docker.tasks.RegistryCredentialsAware;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.PullImageCmd;
+import com.github.dockerjava.api.command.PullImageResultCallback;
+import com.github.dockerjava.api.model.AuthConfig;
+import com.github.dockerjava.api.model.PullResponseItem;
+import com.github.dockerjava.api.model.ResponseItem;
+import com.github.dockerjava.core.NameParser;
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pulls a set of images concurrently.
+ * <p>
+ * Images whose tag points to the same manifest as the local image already are not pulled. References resolving to the
+ * same manifest in a repository are pulled once and tagged locally. The number of bytes downloaded and the time taken
+ * are reported for every pulled image.
+ *
+ * @since 10.1.0
+ */
+public class DockerPullImages extends AbstractDockerRemoteApiTask implements RegistryCredentialsAware {
+
+    /**
+     * The images including repository, image name and tag to be pulled e.g. {@code vieux/apache:2.0}.
+     */
+    @Input
+    public final SetProperty<String> getImages() {
+        return images;
+    }
+
+    private final SetProperty<String> images = getProject().getObjects().setProperty(String.class);
+
+    /**
+     * The target platform in the format {@code os[/arch[/variant]]}, for example {@code linux/s390x} or {@code darwin}.
+     */
+    @Input
+    @Optional
+    public final Property<String> getPlatform() {
+        return platform;
+    }
+
+    private final Property<String> platform = getProject().getObjects().property(String.class);
+
+    /**
+     * The maximum number of images pulled at the same time.
+     * <p>
+     * Defaults to 4.
+     */
+    @Internal
+    public final Property<Integer> getParallelism() {
+        return parallelism;
+    }
+
+    private final Property<Integer> parallelism = getProject().getObjects().property(Integer.class);
+
+    /**
+     * Whether images are skipped if the local image has the manifest the registry has for their tag.
+     * Images referenced by digest are skipped if they are present locally.
+     * If a {@link #getPlatform() platform} is set, the local image also has to be built for that platform.
+     * The check is part of the operation, so it is retried and handled by {@link #onError(Action)} like the pull itself.
+     * <p>
+     * Defaults to true.
+     */
+    @Input
+    public final Property<Boolean> getSkipExisting() {
+        return skipExisting;
+    }
+
+    private final Property<Boolean> skipExisting = getProject().getObjects().property(Boolean.class);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final DockerRegistryCredentials getRegistryCredentials() {
+        return registryCredentials;
+    }
+
+    private final DockerRegistryCredentials registryCredentials;
+
+    public DockerPullImages() {
+        registryCredentials = getProject().getObjects().newInstance(DockerRegistryCredentials.class, getProject().getObjects());
+        parallelism.convention(4);
+        skipExisting.convention(true);
+    }
+
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return images.getOrElse(Collections.emptySet());
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected DockerOperationCategory getOperationCategory() {
+        return DockerOperationCategory.TRANSFER;
+    }
+
+    @Override
+    public void runRemoteCommand() throws Exception {
+        if (images.get().isEmpty()) {
+            throw new GradleException("No images configured for pull operation.");
+        }
+
+        List<String> configuredImages = new ArrayList<>(images.get());
+        DockerClient dockerClient = getDockerClient();
+        RegistryAuthConfigs authConfigs = new RegistryAuthConfigs(getRegistryAuthLocator(), registryCredentials);
+        RegistryImageResolver resolver = new RegistryImageResolver(dockerClient, authConfigs, new RegistryManifestClient());
+        ExecutorService executor = ConcurrencyUtils.newDaemonThreadPool("docker-pull", Math.min(parallelism.get(), configuredImages.size()));
+        try {
+            // the registry is queried for all images concurrently
+            Map<String, CompletableFuture<RegistryImageResolver.Resolution>> resolutions = new LinkedHashMap<>();
+            for (String image : configuredImages) {
+                resolutions.put(image, CompletableFuture.supplyAsync(() -> resolveUnchecked(resolver, image, platform.getOrNull()), executor));
+            }
+            ConcurrencyUtils.awaitAll(resolutions, image -> "Image '" + image + "'", "images could not be resolved");
+
+            List<String> remoteImages = new ArrayList<>();
+            Map<String, String> digestReferences = new HashMap<>();
+            for (String image : configuredImages) {
+                RegistryImageResolver.Resolution resolution = resolutions.get(image).join();
+                if (skipExisting.get() && resolution.isPresentLocally()) {
+                    getLogger().quiet("Skipping image '" + image + "' as it is present locally already.");
+                    continue;
+                }
+                remoteImages.add(image);
+                if (resolution.getDigestReference() != null) {
+                    digestReferences.put(image, resolution.getDigestReference());
+                }
+            }
+            if (remoteImages.isEmpty()) {
+                getLogger().quiet("All images are present locally already.");
+                return;
+            }
+
+            Map<String, CompletableFuture<Void>> pulls = new LinkedHashMap<>();
+            for (List<String> group : groupByDigest(remoteImages, digestReferences)) {
+                String first = group.get(0);
+                List<String> others = group.subList(1, group.size());
+                CompletableFuture<Void> pull = CompletableFuture.runAsync(() -> {
+                    pullImageUnchecked(dockerClient, first, authConfigs.get(first));
+                    for (String other : others) {
+                        NameParser.ReposTag reposTag = NameParser.parseRepositoryTag(other);
+                        dockerClient.tagImageCmd(first, reposTag.repos, reposTag.tag.isEmpty() ? "latest" : reposTag.tag).exec();
+                        getLogger().quiet("Tagged image '" + first + "' as '" + other + "' as both resolve to the same manifest.");
+                    }
+                }, executor);
+                for (String image : group) {
+                    pulls.put(image, pull);
+                }
+            }
+            ConcurrencyUtils.awaitAll(pulls, image -> "Image '" + image + "'", "images failed to pull");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void pullImage(DockerClient dockerClient, String image, AuthConfig authConfig) throws InterruptedException {
+        getLogger().quiet("Pulling image '" + image + "' from " + getRegistryAuthLocator().getRegistry(image) + ".");
+
+        PullImageCmd pullImageCmd = dockerClient.pullImageCmd(image);
+        if (platform.getOrNull() != null) {
+            pullImageCmd.withPlatform(platform.get());
+        }
+        pullImageCmd.withAuthConfig(authConfig);
+
+        PullProgress progress = new PullProgress();
+        long started = System.nanoTime();
+        pullImageCmd.exec(createCallback(getNextHandler(), progress)).awaitCompletion();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        getLogger().quiet("Pulled image '" + image + "': downloaded " + formatBytes(progress.getBytes()) + " in " + String.format(Locale.ROOT, "%.1f", elapsed / 1000.0) + " s.");
+    }
+
+    private void pullImageUnchecked(DockerClient dockerClient, String image, AuthConfig authConfig) {
+        try {
+            pullImage(dockerClient, image, authConfig);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while pulling image '" + image + "'.", e);
+        }
+    }
+
+    private static RegistryImageResolver.Resolution resolveUnchecked(RegistryImageResolver resolver, String image, @Nullable String platform) {
+        try {
+            return resolver.resolve(image, platform);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while querying the manifest of image '" + image + "'.", e);
+        }
+    }
+
+    /**
+     * Groups the images resolving to the same manifest in the same repository.
+     * The groups and the images within each group keep the order of the given images.
+     * Images without a known digest form groups of their own.
+     */
+    static List<List<String>> groupByDigest(List<String> images, Map<String, String> digestReferences) {
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (String image : images) {
+            String key = digestReferences.get(image);
+            groups.computeIfAbsent(key != null ? key : image, k -> new ArrayList<>()).add(image);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] units = {"KB", "MB", "GB", "TB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format(Locale.ROOT, "%.1f %s", value, units[unit]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void registryCredentials(Action<? super DockerRegistryCredentials> action) {
+        action.execute(registryCredentials);
+    }
+
+    private PullImageResultCallback createCallback(final Action nextHandler, final PullProgress progress) {
+        return new PullImageResultCallback() {
+            @Override
+            public void onNext(PullResponseItem item) {
+                progress.update(item);
+                if (nextHandler != null) {
+                    try {
+                        // images are pulled concurrently
+                        synchronized (nextHandler) {
+                            nextHandler.execute(item);
+                        }
+                    } catch (Exception e) {
+                        getLogger().error("Failed to handle pull response", e);
+                        return;
+                    }
+                }
+                super.onNext(item);
+            }
+        };
+    }
+
+    /**
+     * Sums up the sizes of the layers downloaded by a pull, as reported by the progress of the pull.
+     */
+    static final class PullProgress {
+        private final Map<String, Long> layerSizes = new HashMap<>();
+
+        void update(ResponseItem item) {
+            ResponseItem.ProgressDetail detail = item.getProgressDetail();
+            if (item.getId() != null && "Downloading".equals(item.getStatus()) && detail != null && detail.getTotal() != null && detail.getTotal() > 0) {
+                layerSizes.merge(item.getId(), detail.getTotal(), Math::max);
+            }
+        }
+
+        long getBytes() {
+            return layerSizes.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
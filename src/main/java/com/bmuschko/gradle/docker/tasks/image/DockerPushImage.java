@@ -16,19 +16,36 @@
 package com.bmuschko.gradle.docker.tasks.image;
 
 import com.bmuschko.gradle.docker.DockerRegistryCredentials;
+import com.bmuschko.gradle.docker.internal.ConcurrencyUtils;
+import com.bmuschko.gradle.docker.internal.RegistryManifestClient;
+import com.bmuschko.gradle.docker.internal.services.DockerOperationCategory;
 import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
 import com.bmuschko.gradle.docker.tasks.RegistryCredentialsAware;
+import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.InspectImageResponse;
 import com.github.dockerjava.api.command.PushImageCmd;
 import com.github.dockerjava.api.exception.DockerClientException;
+import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.AuthConfig;
 import com.github.dockerjava.api.model.PushResponseItem;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
+import org.gradle.api.provider.Property;
 import org.gradle.api.provider.SetProperty;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 public class DockerPushImage extends AbstractDockerRemoteApiTask implements RegistryCredentialsAware {
 
@@ -44,6 +61,42 @@ public class DockerPushImage extends AbstractDockerRemoteApiTask implements Regi
 
     private final SetProperty<String> images = getProject().getObjects().setProperty(String.class);
 
+    /**
+     * The maximum number of images pushed at the same time.
+     * <p>
+     * Images sharing layers with an image pushed to the same registry are only pushed once that image has been pushed,
+     * so that the registry can mount the shared layers instead of receiving them again.
+     * <p>
+     * Defaults to 4.
+     *
+     * @since 10.1.0
+     */
+    @Internal
+    public final Property<Integer> getParallelism() {
+        return parallelism;
+    }
+
+    private final Property<Integer> parallelism = getProject().getObjects().property(Integer.class);
+
+    /**
+     * Whether images are skipped if the registry has the same manifest for their tag already.
+     * <p>
+     * The digest of the manifest is requested from the registry without downloading the manifest and compared to the
+     * repository digests of the local image. The check is part of the operation, so it is retried and handled by
+     * {@link #onError(Action)} like the push itself. The registry is queried by the build rather than by the daemon, so
+     * the daemon's proxy, insecure registry and certificate settings do not apply to the check.
+     * <p>
+     * Defaults to false.
+     *
+     * @since 10.1.0
+     */
+    @Input
+    public final Property<Boolean> getSkipExisting() {
+        return skipExisting;
+    }
+
+    private final Property<Boolean> skipExisting = getProject().getObjects().property(Boolean.class);
+
     /**
      * {@inheritDoc}
      */
@@ -55,6 +108,23 @@ public class DockerPushImage extends AbstractDockerRemoteApiTask implements Regi
 
     public DockerPushImage() {
         registryCredentials = getProject().getObjects().newInstance(DockerRegistryCredentials.class, getProject().getObjects());
+        parallelism.convention(4);
+        skipExisting.convention(false);
+    }
+
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return images.getOrElse(Collections.emptySet());
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected DockerOperationCategory getOperationCategory() {
+        return DockerOperationCategory.TRANSFER;
     }
 
     @Override
@@ -63,15 +133,121 @@ public class DockerPushImage extends AbstractDockerRemoteApiTask implements Regi
             throw new GradleException("No images configured for push operation.");
         }
 
+        DockerClient dockerClient = getDockerClient();
+        RegistryAuthConfigs authConfigs = new RegistryAuthConfigs(getRegistryAuthLocator(), registryCredentials);
+        RegistryImageResolver resolver = new RegistryImageResolver(dockerClient, authConfigs, new RegistryManifestClient());
+        List<String> localImages = new ArrayList<>();
         for (String image : images.get()) {
-            AuthConfig authConfig = getRegistryAuthLocator().lookupAuthConfig(image, registryCredentials);
-            getLogger().quiet("Pushing image '" + image + "' to " + getRegistryAuthLocator().getRegistry(image) + ".");
+            if (skipExisting.get() && resolver.isPresentInRegistry(image)) {
+                getLogger().quiet("Skipping image '" + image + "' as it is present in the registry already.");
+            } else {
+                localImages.add(image);
+            }
+        }
+        if (localImages.isEmpty()) {
+            getLogger().quiet("All images are present in their registries already.");
+            return;
+        }
+
+        Map<String, String> registries = new LinkedHashMap<>();
+        for (String image : localImages) {
+            registries.put(image, getRegistryAuthLocator().getRegistry(image));
+        }
+
+        if (localImages.size() == 1 || parallelism.get() <= 1) {
+            for (String image : localImages) {
+                pushImage(dockerClient, image, registries.get(image), authConfigs.get(image));
+            }
+            return;
+        }
+
+        Map<String, List<String>> layers = new HashMap<>();
+        for (String image : localImages) {
+            layers.put(image, getLayers(dockerClient, image));
+        }
+
+        ExecutorService executor = ConcurrencyUtils.newDaemonThreadPool("docker-push", Math.min(parallelism.get(), localImages.size()));
+        try {
+            Map<String, CompletableFuture<Void>> pushes = new LinkedHashMap<>();
+            for (List<String> group : groupBySharedLayers(localImages, registries, layers)) {
+                String first = group.get(0);
+                CompletableFuture<Void> firstPush = CompletableFuture.runAsync(() -> pushImageUnchecked(dockerClient, first, registries.get(first), authConfigs.get(first)), executor);
+                pushes.put(first, firstPush);
+                for (String image : group.subList(1, group.size())) {
+                    // push even if the first image failed, the layers are uploaded again in that case
+                    pushes.put(image, firstPush.handle((result, failure) -> null)
+                            .thenRunAsync(() -> pushImageUnchecked(dockerClient, image, registries.get(image), authConfigs.get(image)), executor));
+                }
+            }
+
+            ConcurrencyUtils.awaitAll(pushes, image -> "Image '" + image + "'", "images failed to push");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void pushImage(DockerClient dockerClient, String image, String registry, AuthConfig authConfig) throws InterruptedException {
+        getLogger().quiet("Pushing image '" + image + "' to " + registry + ".");
+
+        PushImageCmd pushImageCmd = dockerClient.pushImageCmd(image);
+        pushImageCmd.withAuthConfig(authConfig);
+        ResultCallback.Adapter<PushResponseItem> callback = createCallback(getNextHandler());
+        pushImageCmd.exec(callback).awaitCompletion();
+    }
+
+    private void pushImageUnchecked(DockerClient dockerClient, String image, String registry, AuthConfig authConfig) {
+        try {
+            pushImage(dockerClient, image, registry, authConfig);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while pushing image '" + image + "'.", e);
+        }
+    }
+
+    private static List<String> getLayers(DockerClient dockerClient, String image) {
+        try {
+            InspectImageResponse response = dockerClient.inspectImageCmd(image).exec();
+            return response.getRootFS() != null && response.getRootFS().getLayers() != null ? response.getRootFS().getLayers() : Collections.emptyList();
+        } catch (NotFoundException e) {
+            // the push reports the missing image
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Groups the images pushed to the same registry which share at least one layer, directly or through other images.
+     * The groups and the images within each group keep the order of the given images.
+     */
+    static List<List<String>> groupBySharedLayers(List<String> images, Map<String, String> registries, Map<String, List<String>> layers) {
+        int[] groupOf = new int[images.size()];
+        Map<String, Integer> firstImageByLayer = new HashMap<>();
+        for (int i = 0; i < images.size(); i++) {
+            groupOf[i] = i;
+            String image = images.get(i);
+            for (String layer : layers.getOrDefault(image, Collections.emptyList())) {
+                Integer other = firstImageByLayer.putIfAbsent(registries.get(image) + "/" + layer, i);
+                if (other != null) {
+                    // the earlier image represents the merged group
+                    int root = findGroup(groupOf, i);
+                    int otherRoot = findGroup(groupOf, other);
+                    groupOf[Math.max(root, otherRoot)] = Math.min(root, otherRoot);
+                }
+            }
+        }
+
+        Map<Integer, List<String>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < images.size(); i++) {
+            groups.computeIfAbsent(findGroup(groupOf, i), root -> new ArrayList<>()).add(images.get(i));
+        }
+        return new ArrayList<>(groups.values());
+    }
 
-            PushImageCmd pushImageCmd = getDockerClient().pushImageCmd(image);
-            pushImageCmd.withAuthConfig(authConfig);
-            ResultCallback.Adapter<PushResponseItem> callback = createCallback(getNextHandler());
-            pushImageCmd.exec(callback).awaitCompletion();
+    private static int findGroup(int[] groupOf, int image) {
+        int root = image;
+        while (groupOf[root] != root) {
+            root = groupOf[root];
         }
+        return root;
     }
 
     /**
@@ -93,7 +269,10 @@ public class DockerPushImage extends AbstractDockerRemoteApiTask implements Regi
                 this.latestItem = item;
 
                 if (nextHandler != null) {
-                    nextHandler.execute(item);
+                    // images may be pushed concurrently
+                    synchronized (nextHandler) {
+                        nextHandler.execute(item);
+                    }
                 }
             }
 
@@ -1,5 +1,6 @@
 package com.bmuschko.gradle.docker.tasks.image;
 
+import com.bmuschko.gradle.docker.internal.services.DockerOperationCategory;
 import com.bmuschko.gradle.docker.tasks.AbstractDockerRemoteApiTask;
 import com.github.dockerjava.api.command.SaveImagesCmd;
 import com.github.dockerjava.api.exception.DockerException;
@@ -132,6 +133,21 @@ public class DockerSaveImage extends AbstractDockerRemoteApiTask {
         }
     }
 
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return getImages().getOrElse(Collections.emptySet());
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected DockerOperationCategory getOperationCategory() {
+        return DockerOperationCategory.TRANSFER;
+    }
+
     @Override
     public void runRemoteCommand() {
         final Set<String> images = getImages().getOrElse(new HashSet<>());
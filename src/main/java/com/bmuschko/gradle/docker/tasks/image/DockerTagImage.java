@@ -52,6 +52,11 @@ public class DockerTagImage extends DockerExistingImage {
 
     private final Property<Boolean> force = getProject().getObjects().property(Boolean.class);
 
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Tagging image with ID \'" + getImageId().get() + "\'.");
@@ -62,5 +67,6 @@ public class DockerTagImage extends DockerExistingImage {
         }
 
         tagImageCmd.exec();
+        bindToSelectedHost(repository.get() + ":" + tag.get());
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.image;
+
+import com.bmuschko.gradle.docker.DockerRegistryCredentials;
+import com.bmuschko.gradle.docker.internal.RegistryAuthLocator;
+import com.github.dockerjava.api.model.AuthConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves the credentials of the registries of a set of images once per registry, as credential helpers are external
+ * processes. Safe to use from concurrent transfers.
+ */
+final class RegistryAuthConfigs {
+
+    private final RegistryAuthLocator registryAuthLocator;
+    private final DockerRegistryCredentials registryCredentials;
+    private final Map<String, AuthConfig> authConfigs = new HashMap<>();
+
+    RegistryAuthConfigs(RegistryAuthLocator registryAuthLocator, DockerRegistryCredentials registryCredentials) {
+        this.registryAuthLocator = registryAuthLocator;
+        this.registryCredentials = registryCredentials;
+    }
+
+    synchronized AuthConfig get(String image) {
+        return authConfigs.computeIfAbsent(registryAuthLocator.getRegistry(image), registry -> registryAuthLocator.lookupAuthConfig(image, registryCredentials));
+    }
+}
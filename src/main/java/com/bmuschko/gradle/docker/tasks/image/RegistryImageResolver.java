@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.bmuschko.gradle.docker.tasks.image;
+
+import com.bmuschko.gradle.docker.internal.RegistryManifestClient;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.InspectImageResponse;
+import com.github.dockerjava.api.exception.NotFoundException;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Compares local images with the manifests their tags point to in the registry.
+ */
+final class RegistryImageResolver {
+
+    private final DockerClient dockerClient;
+    private final RegistryAuthConfigs authConfigs;
+    private final RegistryManifestClient manifestClient;
+
+    RegistryImageResolver(DockerClient dockerClient, RegistryAuthConfigs authConfigs, RegistryManifestClient manifestClient) {
+        this.dockerClient = dockerClient;
+        this.authConfigs = authConfigs;
+        this.manifestClient = manifestClient;
+    }
+
+    /**
+     * Checks whether the tag of a local image points to the manifest of the image in the registry already.
+     */
+    boolean isPresentInRegistry(String image) throws InterruptedException {
+        InspectImageResponse localImage = inspectImage(image);
+        List<String> repoDigests = localImage != null ? getRepoDigests(localImage) : null;
+        if (repoDigests == null || repoDigests.isEmpty()) {
+            // missing, or never pushed or pulled, no need to ask the registry
+            return false;
+        }
+        String digest = manifestClient.getManifestDigest(image, authConfigs.get(image));
+        return digest != null && RegistryManifestClient.hasRepoDigest(image, repoDigests, digest);
+    }
+
+    /**
+     * Determines the manifest an image resolves to in its registry and whether the local image has that manifest.
+     * If a platform is given, the local image also has to be built for that platform, as the repository digest of a
+     * multi-platform image is the same for all of its platforms.
+     */
+    Resolution resolve(String image, @Nullable String platform) throws InterruptedException {
+        InspectImageResponse localImage = inspectImage(image);
+        List<String> repoDigests = localImage != null && matchesPlatform(localImage.getOs(), localImage.getArch(), platform) ? getRepoDigests(localImage) : null;
+        if (image.contains("@")) {
+            // a reference by digest always resolves to the same image
+            return new Resolution(repoDigests != null, null);
+        }
+
+        String digest = manifestClient.getManifestDigest(image, authConfigs.get(image));
+        if (digest == null) {
+            return new Resolution(false, null);
+        }
+        return new Resolution(repoDigests != null && RegistryManifestClient.hasRepoDigest(image, repoDigests, digest), RegistryManifestClient.getDigestReference(image, digest));
+    }
+
+    /**
+     * Checks whether a local image with the given OS and architecture has the given platform in the format
+     * {@code os[/arch[/variant]]}. The variant of a local image is unknown, so no image matches a platform with a
+     * variant.
+     */
+    static boolean matchesPlatform(@Nullable String os, @Nullable String arch, @Nullable String platform) {
+        if (platform == null) {
+            return true;
+        }
+        String[] parts = platform.split("/");
+        return parts.length <= 2 && parts[0].equalsIgnoreCase(os) && (parts.length == 1 || parts[1].equalsIgnoreCase(arch));
+    }
+
+    /**
+     * Returns the local image, or null if there is no such image.
+     */
+    @Nullable
+    private InspectImageResponse inspectImage(String image) {
+        try {
+            return dockerClient.inspectImageCmd(image).exec();
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
+
+    private static List<String> getRepoDigests(InspectImageResponse localImage) {
+        return localImage.getRepoDigests() != null ? localImage.getRepoDigests() : List.of();
+    }
+
+    static final class Resolution {
+        private final boolean presentLocally;
+        @Nullable
+        private final String digestReference;
+
+        Resolution(boolean presentLocally, @Nullable String digestReference) {
+            this.presentLocally = presentLocally;
+            this.digestReference = digestReference;
+        }
+
+        /**
+         * Whether the local image is the image the reference resolves to.
+         */
+        boolean isPresentLocally() {
+            return presentLocally;
+        }
+
+        /**
+         * The reference by digest of the image in its repository, or null if unknown.
+         */
+        @Nullable
+        String getDigestReference() {
+            return digestReference;
+        }
+    }
+}
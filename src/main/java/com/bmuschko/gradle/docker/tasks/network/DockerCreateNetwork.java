@@ -19,6 +19,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class DockerCreateNetwork extends AbstractDockerRemoteApiTask {
@@ -88,6 +90,11 @@ public class DockerCreateNetwork extends AbstractDockerRemoteApiTask {
         }));
     }
 
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return networkName.isPresent() ? Collections.singletonList(networkName.get()) : Collections.emptyList();
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Creating network '" + getNetworkName().get() + "'.");
@@ -113,6 +120,7 @@ public class DockerCreateNetwork extends AbstractDockerRemoteApiTask {
         }
 
         String createdNetworkId = network.getId();
+        bindToSelectedHost(createdNetworkId);
         File networkIdFile = getNetworkIdFile().get().getAsFile();
         networkIdFile.getParentFile().mkdirs();
         try {
@@ -5,6 +5,8 @@ import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.Callable;
 
 public abstract class DockerExistingNetwork extends AbstractDockerRemoteApiTask {
@@ -51,4 +53,9 @@ public abstract class DockerExistingNetwork extends AbstractDockerRemoteApiTask
     public void targetNetworkId(Provider<String> networkId) {
         this.networkId.set(networkId);
     }
+
+    @Override
+    protected Collection<String> getHostAffinityKeys() {
+        return networkId.isPresent() ? Collections.singletonList(networkId.get()) : Collections.emptyList();
+    }
 }
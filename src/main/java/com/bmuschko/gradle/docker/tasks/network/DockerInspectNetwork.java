@@ -3,6 +3,11 @@ package com.bmuschko.gradle.docker.tasks.network;
 import com.github.dockerjava.api.model.Network;
 
 public class DockerInspectNetwork extends DockerExistingNetwork {
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public void runRemoteCommand() {
         getLogger().quiet("Inspecting network '" + getNetworkId().get() + "'.");
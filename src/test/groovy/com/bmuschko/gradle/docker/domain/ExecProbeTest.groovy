@@ -0,0 +1,61 @@
+package com.bmuschko.gradle.docker.domain
+
+import org.gradle.api.GradleException
+import spock.lang.Specification
+
+class ExecProbeTest extends Specification {
+
+    def "uses fixed interval by default"() {
+        given:
+        def probe = new ExecProbe(60000, 2000)
+
+        expect:
+        probe.initialPollInterval == 2000
+        probe.nextPollInterval(2000) == 2000
+    }
+
+    def "accepts zero poll interval without backoff"() {
+        given:
+        def probe = new ExecProbe(60000, 0)
+
+        expect:
+        probe.pollInterval == 0
+        probe.initialPollInterval == 0
+        probe.nextPollInterval(0) == 0
+    }
+
+    def "increases interval up to poll interval"() {
+        given:
+        def probe = new ExecProbe(60000, 10, 100, 2)
+
+        expect:
+        probe.nextPollInterval(10) == 20
+        probe.nextPollInterval(40) == 80
+        probe.nextPollInterval(80) == 100
+        probe.nextPollInterval(100) == 100
+    }
+
+    def "always increases interval for multiplier greater than 1"() {
+        given:
+        def probe = new ExecProbe(60000, 1, 100, 1.1)
+
+        expect:
+        probe.nextPollInterval(1) == 2
+        probe.nextPollInterval(10) == 11
+    }
+
+    def "rejects invalid settings"() {
+        when:
+        new ExecProbe(pollTime, initialPollInterval, pollInterval, backoffMultiplier)
+
+        then:
+        thrown(GradleException)
+
+        where:
+        pollTime | initialPollInterval | pollInterval | backoffMultiplier
+        1000     | 10                  | 2000         | 2
+        60000    | 0                   | 2000         | 2
+        60000    | 3000                | 2000         | 2
+        60000    | 10                  | 2000         | 0.5
+    }
+}
@@ -0,0 +1,135 @@
+package com.bmuschko.gradle.docker.internal
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.util.zip.GZIPInputStream
+
+class BufferedLogSinkTest extends Specification {
+
+    @TempDir
+    File temporaryFolder
+
+    def "buffers output until flushed"() {
+        given:
+        def file = new File(temporaryFolder, 'container.log')
+        def sink = new BufferedLogSink(file, 1024, null, false, 0)
+
+        when:
+        sink.write('One\n'.bytes)
+        sink.write('Two\n'.bytes)
+
+        then:
+        file.length() == 0
+
+        when:
+        sink.flush()
+
+        then:
+        file.text == 'One\nTwo\n'
+
+        cleanup:
+        sink.close()
+    }
+
+    def "appends to existing file"() {
+        given:
+        def file = new File(temporaryFolder, 'logs/container.log')
+        file.parentFile.mkdirs()
+        file.text = 'Existing\n'
+
+        when:
+        new BufferedLogSink(file, 1024, null, false, 0).withCloseable { it.write('New\n'.bytes) }
+
+        then:
+        file.text == 'Existing\nNew\n'
+    }
+
+    def "does not create file without output"() {
+        given:
+        def file = new File(temporaryFolder, 'container.log')
+
+        when:
+        new BufferedLogSink(file, 1024, null, false, 0).close()
+
+        then:
+        !file.exists()
+    }
+
+    def "flushes in interval"() {
+        given:
+        def file = new File(temporaryFolder, 'container.log')
+        def sink = new BufferedLogSink(file, 1024, java.time.Duration.ofMillis(10), false, 0)
+
+        when:
+        sink.write('One\n'.bytes)
+        def deadline = System.currentTimeMillis() + 5000
+        while (file.length() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+
+        then:
+        file.text == 'One\n'
+
+        cleanup:
+        sink.close()
+    }
+
+    def "stops flushing on close"() {
+        given:
+        def sink = new BufferedLogSink(new File(temporaryFolder, 'container.log'), 1024, java.time.Duration.ofMillis(10), false, 0)
+
+        expect:
+        sink.flushScheduled
+
+        when:
+        sink.close()
+
+        then:
+        !sink.flushScheduled
+    }
+
+    def "compresses output"() {
+        given:
+        def file = new File(temporaryFolder, 'container.log.gz')
+
+        when:
+        new BufferedLogSink(file, 1024, null, true, 0).withCloseable { it.write('One\nTwo\n'.bytes) }
+
+        then:
+        new GZIPInputStream(new FileInputStream(file)).text == 'One\nTwo\n'
+    }
+
+    def "rotates output exceeding maximum size"() {
+        given:
+        def file = new File(temporaryFolder, 'container.log')
+
+        when:
+        new BufferedLogSink(file, 1, null, false, 8).withCloseable {
+            it.write('Line one\n'.bytes)
+            it.write('Line two\n'.bytes)
+            it.write('Three\n'.bytes)
+        }
+
+        then:
+        new File(temporaryFolder, 'container.1.log').text == 'Line one\n'
+        new File(temporaryFolder, 'container.2.log').text == 'Line two\n'
+        file.text == 'Three\n'
+    }
+
+    def "rotates compressed output"() {
+        given:
+        def file = new File(temporaryFolder, 'container.log.gz')
+
+        when:
+        new BufferedLogSink(file, 1, null, true, 1).withCloseable {
+            it.write('One\n'.bytes)
+            it.write('Two\n'.bytes)
+        }
+
+        then:
+        new GZIPInputStream(new FileInputStream(new File(temporaryFolder, 'container.1.log.gz'))).text == 'One\n'
+        new GZIPInputStream(new FileInputStream(new File(temporaryFolder, 'container.2.log.gz'))).text == 'Two\n'
+        !file.exists()
+    }
+}
@@ -0,0 +1,51 @@
+package com.bmuschko.gradle.docker.internal
+
+import org.gradle.api.GradleException
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+
+class ConcurrencyUtilsTest extends Specification {
+
+    def "reports all failed operations with first failure as cause"() {
+        given:
+        def first = new SocketException('Connection reset')
+        def futures = [
+            a: CompletableFuture.completedFuture(null),
+            b: CompletableFuture.failedFuture(first),
+            c: CompletableFuture.failedFuture(new IllegalStateException())
+        ]
+
+        when:
+        ConcurrencyUtils.awaitAll(futures, { "Image '$it'".toString() }, 'images failed to push')
+
+        then:
+        def e = thrown(GradleException)
+        e.message == "2 of 3 images failed to push:\nImage 'b': Connection reset\nImage 'c': java.lang.IllegalStateException"
+        e.cause.is(first)
+        RetryUtils.isTransient(e)
+    }
+
+    def "returns if all operations succeed"() {
+        when:
+        ConcurrencyUtils.awaitAll([a: CompletableFuture.completedFuture(null)], { it }, 'failed')
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "creates daemon threads with given prefix"() {
+        given:
+        def executor = ConcurrencyUtils.newDaemonThreadPool('docker-test', 0)
+
+        when:
+        def thread = executor.submit({ Thread.currentThread() } as java.util.concurrent.Callable).get()
+
+        then:
+        thread.daemon
+        thread.name == 'docker-test-1'
+
+        cleanup:
+        executor.shutdownNow()
+    }
+}
@@ -0,0 +1,74 @@
+package com.bmuschko.gradle.docker.internal
+
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.regex.Pattern
+
+class LogMessageMatcherTest extends Specification {
+
+    def "matches literal message split across frames"() {
+        given:
+        def matcher = LogMessageMatcher.literal('Started application')
+
+        expect:
+        !matcher.accept('Starting...\nStart'.bytes)
+        !matcher.accept('ed appli'.bytes)
+        matcher.accept('cation in 2s\n'.bytes)
+        matcher.accept('more output'.bytes)
+    }
+
+    def "matches literal message with repeated prefix"() {
+        given:
+        def matcher = LogMessageMatcher.literal('aab')
+
+        expect:
+        !matcher.accept('aaa'.bytes)
+        matcher.accept('b'.bytes)
+    }
+
+    def "matches literal message containing multi-byte characters"() {
+        given:
+        def matcher = LogMessageMatcher.literal('Grüße')
+        def bytes = 'Grüße'.getBytes(StandardCharsets.UTF_8)
+
+        expect:
+        !matcher.accept(Arrays.copyOfRange(bytes, 0, 3))
+        matcher.accept(Arrays.copyOfRange(bytes, 3, bytes.length))
+    }
+
+    def "does not match absent literal message"() {
+        given:
+        def matcher = LogMessageMatcher.literal('Ready')
+
+        expect:
+        !matcher.accept('Rea\ndy\n'.bytes)
+        !matcher.finish()
+    }
+
+    def "matches regular expression against complete lines"() {
+        given:
+        def matcher = LogMessageMatcher.regex(Pattern.compile('listening on port \\d+$'))
+
+        expect:
+        !matcher.accept('Server listening on port 80'.bytes)
+        matcher.accept('80\n'.bytes)
+    }
+
+    def "matches regular expression against incomplete last line when finished"() {
+        given:
+        def matcher = LogMessageMatcher.regex(Pattern.compile('^Done$'))
+
+        expect:
+        !matcher.accept('Working\nDone'.bytes)
+        matcher.finish()
+    }
+
+    def "rejects empty literal message"() {
+        when:
+        LogMessageMatcher.literal('')
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,127 @@
+package com.bmuschko.gradle.docker.internal
+
+import groovy.json.JsonSlurper
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneOffset
+
+class NdjsonLogEncoderTest extends Specification {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse('2024-01-01T12:00:00Z'), ZoneOffset.UTC)
+
+    @TempDir
+    File temporaryFolder
+
+    def "writes one record per line"() {
+        given:
+        def file = new File(temporaryFolder, 'container.ndjson')
+        def sink = new BufferedLogSink(file, 1024, null, false, 0)
+        def encoder = new NdjsonLogEncoder(sink, 'stdout', false, CLOCK)
+
+        when:
+        encoder.write('One\nTwo\r\n'.bytes)
+        encoder.close()
+        sink.close()
+
+        then:
+        records(file) == [
+            [stream: 'stdout', timestamp: '2024-01-01T12:00:00Z', payload: 'One'],
+            [stream: 'stdout', timestamp: '2024-01-01T12:00:00Z', payload: 'Two']
+        ]
+    }
+
+    def "joins lines split across frames and writes incomplete last line on close"() {
+        given:
+        def file = new File(temporaryFolder, 'container.ndjson')
+        def sink = new BufferedLogSink(file, 1024, null, false, 0)
+        def encoder = new NdjsonLogEncoder(sink, 'stderr', false, CLOCK)
+
+        when:
+        encoder.write('Fir'.bytes)
+        encoder.write('st\nSec'.bytes)
+        encoder.write('ond'.bytes)
+        encoder.close()
+        sink.close()
+
+        then:
+        records(file)*.payload == ['First', 'Second']
+        records(file)*.stream == ['stderr', 'stderr']
+    }
+
+    def "escapes payload"() {
+        given:
+        def file = new File(temporaryFolder, 'container.ndjson')
+        def sink = new BufferedLogSink(file, 1024, null, false, 0)
+        def encoder = new NdjsonLogEncoder(sink, 'stdout', false, CLOCK)
+        def payload = 'Quote " backslash \\ tab \t bell \u0007 umlaut ü'
+
+        when:
+        encoder.write((payload + '\n').getBytes(StandardCharsets.UTF_8))
+        encoder.close()
+        sink.close()
+
+        then:
+        file.readLines('UTF-8').size() == 1
+        records(file)*.payload == [payload]
+    }
+
+    def "joins UTF-8 sequence split across frames"() {
+        given:
+        def file = new File(temporaryFolder, 'container.ndjson')
+        def sink = new BufferedLogSink(file, 1024, null, false, 0)
+        def encoder = new NdjsonLogEncoder(sink, 'stdout', false, CLOCK)
+        def bytes = 'Grüße\n'.getBytes(StandardCharsets.UTF_8)
+
+        when:
+        encoder.write(Arrays.copyOfRange(bytes, 0, 3))
+        encoder.write(Arrays.copyOfRange(bytes, 3, bytes.length))
+        encoder.close()
+        sink.close()
+
+        then:
+        records(file)*.payload == ['Grüße']
+    }
+
+    def "replaces invalid UTF-8 bytes"() {
+        given:
+        def file = new File(temporaryFolder, 'container.ndjson')
+        def sink = new BufferedLogSink(file, 1024, null, false, 0)
+        def encoder = new NdjsonLogEncoder(sink, 'stdout', false, CLOCK)
+
+        when:
+        encoder.write([0x61, 0xFF, 0x62, 0x0A] as byte[])
+        encoder.write([0x63, 0xC3] as byte[])
+        encoder.close()
+        sink.close()
+
+        then:
+        records(file)*.payload == ['a\uFFFDb', 'c\uFFFD']
+    }
+
+    def "uses timestamp prefixed by Docker"() {
+        given:
+        def file = new File(temporaryFolder, 'container.ndjson')
+        def sink = new BufferedLogSink(file, 1024, null, false, 0)
+        def encoder = new NdjsonLogEncoder(sink, 'stdout', true, CLOCK)
+
+        when:
+        encoder.write('2023-06-01T08:30:00.123456789Z Started application\n'.bytes)
+        encoder.close()
+        sink.close()
+
+        then:
+        records(file) == [[stream: 'stdout', timestamp: '2023-06-01T08:30:00.123456789Z', payload: 'Started application']]
+    }
+
+    private static List<Map> records(File file) {
+        def slurper = new JsonSlurper()
+        // fails on malformed input instead of replacing it
+        def content = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(file.bytes)).toString()
+        content.readLines().collect { slurper.parseText(it) as Map }
+    }
+}
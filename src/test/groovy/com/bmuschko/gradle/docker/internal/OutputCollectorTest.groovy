@@ -66,4 +66,59 @@ class OutputCollectorTest extends Specification {
         then:
         output.toString() == "\n"
     }
+
+    def "handles all line terminators"() {
+        when:
+        collector.accept("One\r\nTwo\rThree\u2028Four\u0085Five\n")
+        then:
+        output.toString() == "One\nTwo\nThree\nFour\nFive\n"
+    }
+
+    def "handles carriage return and line feed split across chunks"() {
+        when:
+        collector.accept("One\r")
+        collector.accept("\nTwo\n")
+        then:
+        output.toString() == "One\nTwo\n"
+    }
+
+    def "handles bytes"() {
+        when:
+        collector.accept("One\nTwo".getBytes("UTF-8"))
+        collector.accept("\n".getBytes("UTF-8"))
+        then:
+        output.toString() == "One\nTwo\n"
+    }
+
+    def "handles multi-byte character split across chunks"() {
+        given:
+        byte[] bytes = "Grüße 👋\n".getBytes("UTF-8")
+
+        when:
+        bytes.each { b -> collector.accept([b] as byte[]) }
+        then:
+        output.toString() == "Grüße 👋\n"
+    }
+
+    def "handles range of bytes"() {
+        given:
+        byte[] bytes = "xxOne\nxx".getBytes("UTF-8")
+
+        when:
+        collector.accept(bytes, 2, 4)
+        then:
+        output.toString() == "One\n"
+    }
+
+    def "replaces incomplete character when closed"() {
+        given:
+        byte[] bytes = "ü".getBytes("UTF-8")
+
+        when:
+        collector.accept("One".getBytes("UTF-8"))
+        collector.accept(bytes, 0, 1)
+        collector.close()
+        then:
+        output.toString() == "One\uFFFD\n"
+    }
 }
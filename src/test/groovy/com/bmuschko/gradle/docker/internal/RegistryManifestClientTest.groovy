@@ -0,0 +1,141 @@
+package com.bmuschko.gradle.docker.internal
+
+import com.github.dockerjava.api.model.AuthConfig
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class RegistryManifestClientTest extends Specification {
+
+    private static final String DIGEST = 'sha256:0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef'
+
+    HttpServer server
+    List<String> requests = []
+
+    def setup() {
+        server = HttpServer.create(new InetSocketAddress('127.0.0.1', 0), 0)
+        server.createContext('/token') { HttpExchange exchange ->
+            requests << "${exchange.requestMethod} ${exchange.requestURI}".toString()
+            if (exchange.requestHeaders.getFirst('Authorization') == basic('user', 'secret')) {
+                respond(exchange, 200, '{"token":"abc"}')
+            } else {
+                respond(exchange, 401, '')
+            }
+        }
+        server.createContext('/v2/') { HttpExchange exchange ->
+            requests << "${exchange.requestMethod} ${exchange.requestURI}".toString()
+            if (exchange.requestHeaders.getFirst('Authorization') != 'Bearer abc') {
+                exchange.responseHeaders.add('WWW-Authenticate', "Bearer realm=\"http://127.0.0.1:${server.address.port}/token\",service=\"registry\"")
+                exchange.sendResponseHeaders(401, -1)
+            } else if (exchange.requestURI.path == '/v2/team/app/manifests/1.0') {
+                exchange.responseHeaders.add('Docker-Content-Digest', DIGEST)
+                exchange.sendResponseHeaders(200, -1)
+            } else {
+                exchange.sendResponseHeaders(404, -1)
+            }
+            exchange.close()
+        }
+        server.start()
+    }
+
+    def cleanup() {
+        server.stop(0)
+    }
+
+    def "requests manifest digest with bearer token"() {
+        given:
+        def image = "localhost:${server.address.port}/team/app:1.0".toString()
+
+        when:
+        def digest = new RegistryManifestClient().getManifestDigest(image, new AuthConfig().withUsername('user').withPassword('secret'))
+
+        then:
+        digest == DIGEST
+        requests == [
+            'HEAD /v2/team/app/manifests/1.0',
+            'GET /token?service=registry&scope=repository%3Ateam%2Fapp%3Apull',
+            'HEAD /v2/team/app/manifests/1.0'
+        ]
+    }
+
+    def "returns null for missing manifest"() {
+        expect:
+        new RegistryManifestClient().getManifestDigest("localhost:${server.address.port}/team/app:2.0".toString(), new AuthConfig().withUsername('user').withPassword('secret')) == null
+    }
+
+    def "returns null if authentication fails"() {
+        expect:
+        new RegistryManifestClient().getManifestDigest("localhost:${server.address.port}/team/app:1.0".toString(), null) == null
+    }
+
+    def "returns null if registry is unreachable"() {
+        given:
+        server.stop(0)
+
+        expect:
+        new RegistryManifestClient().getManifestDigest("localhost:${server.address.port}/team/app:1.0".toString(), null) == null
+    }
+
+    def "parses authentication challenge"() {
+        expect:
+        RegistryManifestClient.parseChallenge('Bearer realm="https://auth.docker.io/token",service="registry.docker.io",scope="repository:library/nginx:pull"') == [
+            realm  : 'https://auth.docker.io/token',
+            service: 'registry.docker.io',
+            scope  : 'repository:library/nginx:pull'
+        ]
+    }
+
+    def "resolves image references"() {
+        when:
+        def reference = RegistryManifestClient.ImageReference.parse(image)
+
+        then:
+        reference.registryHost == host
+        reference.repository == repository
+        reference.tag == tag
+        reference.scheme == scheme
+
+        where:
+        image                                  | host                  | repository        | tag      | scheme
+        'nginx'                                | 'registry-1.docker.io' | 'library/nginx'   | 'latest' | 'https'
+        'vieux/apache:2.0'                     | 'registry-1.docker.io' | 'vieux/apache'    | '2.0'    | 'https'
+        'docker.io/library/nginx:1.25'         | 'registry-1.docker.io' | 'library/nginx'   | '1.25'   | 'https'
+        'ghcr.io/owner/app:1'                  | 'ghcr.io'              | 'owner/app'       | '1'      | 'https'
+        'localhost:5000/app:1'                 | 'localhost:5000'       | 'app'             | '1'      | 'http'
+    }
+
+    def "does not resolve references by digest"() {
+        expect:
+        RegistryManifestClient.ImageReference.parse("nginx@$DIGEST") == null
+    }
+
+    def "matches repository digests of the image's repository"() {
+        expect:
+        RegistryManifestClient.hasRepoDigest(image, repoDigests, DIGEST) == matches
+
+        where:
+        image                        | repoDigests                                        | matches
+        'nginx:1.25'                 | ["nginx@$DIGEST".toString()]                       | true
+        'docker.io/library/nginx:1'  | ["nginx@$DIGEST".toString()]                       | true
+        'registry.example.com/app:1' | ["registry.example.com/app@$DIGEST".toString()]    | true
+        'registry.example.com/app:1' | ["app@$DIGEST".toString()]                         | false
+        'registry.example.com/app:1' | ['registry.example.com/app@sha256:other']          | false
+        'registry.example.com/app:1' | []                                                 | false
+        'registry.example.com/app:1' | null                                               | false
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8)
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length)
+        if (bytes.length > 0) {
+            exchange.responseBody.write(bytes)
+        }
+        exchange.close()
+    }
+
+    private static String basic(String username, String password) {
+        'Basic ' + Base64.encoder.encodeToString("$username:$password".getBytes(StandardCharsets.UTF_8))
+    }
+}
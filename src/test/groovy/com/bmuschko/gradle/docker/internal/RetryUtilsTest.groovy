@@ -0,0 +1,57 @@
+package com.bmuschko.gradle.docker.internal
+
+import com.github.dockerjava.api.exception.BadRequestException
+import com.github.dockerjava.api.exception.DockerException
+import com.github.dockerjava.api.exception.NotFoundException
+import org.apache.hc.core5.http.ConnectionClosedException
+import org.apache.hc.core5.http.NoHttpResponseException
+import spock.lang.Specification
+
+import java.time.Duration
+
+class RetryUtilsTest extends Specification {
+
+    def "detects transient errors"() {
+        expect:
+        RetryUtils.isTransient(throwable) == expected
+
+        where:
+        throwable                                                            | expected
+        new SocketTimeoutException()                                         | true
+        new RuntimeException(new ConnectException())                         | true
+        new RuntimeException(new SocketException('Connection reset'))        | true
+        new NoHttpResponseException('localhost:2375 failed to respond')      | true
+        new ConnectionClosedException()                                      | true
+        new DockerException('unavailable', 503)                              | true
+        new DockerException('internal error', 500)                           | true
+        new NotFoundException('no such image')                               | false
+        new BadRequestException('invalid reference')                         | false
+        new IllegalStateException()                                          | false
+        new FileNotFoundException('image.tar')                               | false
+        new UncheckedIOException(new IOException('No space left on device')) | false
+    }
+
+    def "doubles backoff up to maximum"() {
+        expect:
+        RetryUtils.backoffMillis(retry, Duration.ofSeconds(1), Duration.ofSeconds(5), 0, 0.5) == expected
+
+        where:
+        retry | expected
+        1     | 1000
+        2     | 2000
+        3     | 4000
+        4     | 5000
+        50    | 5000
+    }
+
+    def "shortens backoff by jitter"() {
+        expect:
+        RetryUtils.backoffMillis(1, Duration.ofSeconds(1), Duration.ofSeconds(5), 0.5, random) == expected
+
+        where:
+        random | expected
+        0      | 1000
+        0.5    | 750
+        1      | 500
+    }
+}
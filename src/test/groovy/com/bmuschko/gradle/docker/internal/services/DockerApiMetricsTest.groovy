@@ -0,0 +1,78 @@
+package com.bmuschko.gradle.docker.internal.services
+
+import com.fasterxml.jackson.databind.json.JsonMapper
+import com.github.dockerjava.transport.DockerHttpClient
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Unroll
+
+class DockerApiMetricsTest extends Specification {
+
+    @TempDir
+    File tempDir
+
+    def metrics = new DockerApiMetrics()
+
+    @Unroll
+    def "normalizes #method #path to #endpoint"() {
+        expect:
+        DockerApiMetrics.normalize(method, path) == endpoint
+
+        where:
+        method   | path                                              | endpoint
+        'GET'    | '/_ping'                                          | 'GET /_ping'
+        'GET'    | '/v1.41/version'                                  | 'GET /version'
+        'POST'   | '/v1.41/containers/create?name=foo'               | 'POST /containers/create'
+        'POST'   | '/v1.41/containers/3f2a9c/start'                  | 'POST /containers/{id}/start'
+        'GET'    | '/containers/3f2a9c/json'                         | 'GET /containers/{id}/json'
+        'GET'    | '/v1.41/containers/json?all=true'                 | 'GET /containers/json'
+        'POST'   | '/v1.41/exec/abc/start'                           | 'POST /exec/{id}/start'
+        'POST'   | '/v1.41/images/create?fromImage=alpine'           | 'POST /images/create'
+        'GET'    | '/v1.41/images/registry.io/org/app:1.0/json'      | 'GET /images/{name}/json'
+        'POST'   | '/v1.41/images/org/app/push?tag=1.0'              | 'POST /images/{name}/push'
+        'DELETE' | '/v1.41/images/org/app:1.0'                       | 'DELETE /images/{name}'
+        'POST'   | '/v1.41/build?t=app'                              | 'POST /build'
+    }
+
+    def "records requests, bytes and errors"() {
+        given:
+        def delegate = Stub(DockerHttpClient) {
+            execute(_) >> { DockerHttpClient.Request request ->
+                Stub(DockerHttpClient.Response) {
+                    getStatusCode() >> (request.path().contains('missing') ? 404 : 200)
+                    getBody() >> new ByteArrayInputStream('hello'.bytes)
+                }
+            }
+        }
+        def client = new InstrumentingDockerHttpClient(delegate, metrics)
+
+        when:
+        def response = client.execute(request('/v1.41/containers/abc/json', null))
+        response.body.bytes
+        response.close()
+        client.execute(request('/v1.41/containers/missing/json', null)).close()
+        client.execute(request('/v1.41/containers/create', 'payload'.bytes)).close()
+        def report = new File(tempDir, 'reports/metrics.json')
+        metrics.writeReport(report)
+        def json = JsonMapper.builder().build().readValue(report, Map)
+
+        then:
+        json.endpoints['POST /containers/create'].bytesOut == 7
+        json.endpoints['GET /containers/{id}/json'].count == 2
+        json.endpoints['GET /containers/{id}/json'].errors == 1
+        json.endpoints['GET /containers/{id}/json'].bytesIn == 5
+        json.endpoints['GET /containers/{id}/json'].latencyHistogram.sum() == 2
+        json.peakInFlight == 1
+        metrics.summary()[0].startsWith('Docker remote API: 3 requests, 1 errors')
+    }
+
+    private static DockerHttpClient.Request request(String path, byte[] body) {
+        def builder = DockerHttpClient.Request.builder()
+            .method(path.endsWith('create') ? DockerHttpClient.Request.Method.POST : DockerHttpClient.Request.Method.GET)
+            .path(path)
+        if (body != null) {
+            builder.bodyBytes(body)
+        }
+        builder.build()
+    }
+}
@@ -0,0 +1,97 @@
+package com.bmuschko.gradle.docker.internal.services
+
+import org.gradle.api.GradleException
+import spock.lang.Specification
+
+import java.time.Duration
+
+class DockerCircuitBreakerTest extends Specification {
+
+    long now = 0
+    def breaker = new DockerCircuitBreaker(2, Duration.ofNanos(100), { now })
+
+    def "opens after consecutive failures"() {
+        when:
+        breaker.recordFailure()
+        breaker.checkClosed()
+
+        then:
+        noExceptionThrown()
+
+        when:
+        breaker.recordFailure()
+        breaker.checkClosed()
+
+        then:
+        thrown(GradleException)
+    }
+
+    def "success resets failure count"() {
+        when:
+        breaker.recordFailure()
+        breaker.recordSuccess()
+        breaker.recordFailure()
+        breaker.checkClosed()
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "lets single trial through after reset timeout"() {
+        given:
+        breaker.recordFailure()
+        breaker.recordFailure()
+        now = 100
+
+        when:
+        breaker.checkClosed()
+
+        then:
+        noExceptionThrown()
+
+        when:
+        breaker.checkClosed()
+
+        then:
+        thrown(GradleException)
+    }
+
+    def "closes after successful trial"() {
+        given:
+        breaker.recordFailure()
+        breaker.recordFailure()
+        now = 100
+        breaker.checkClosed()
+
+        when:
+        breaker.recordSuccess()
+        breaker.checkClosed()
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "re-opens after failed trial"() {
+        given:
+        breaker.recordFailure()
+        breaker.recordFailure()
+        now = 100
+        breaker.checkClosed()
+
+        when:
+        breaker.recordFailure()
+        now = 150
+        breaker.checkClosed()
+
+        then:
+        thrown(GradleException)
+    }
+
+    def "rejects threshold below one"() {
+        when:
+        new DockerCircuitBreaker(0, Duration.ofSeconds(1))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,91 @@
+package com.bmuschko.gradle.docker.internal.services
+
+import com.fasterxml.jackson.databind.json.JsonMapper
+import com.github.dockerjava.api.DockerClient
+import com.github.dockerjava.api.async.ResultCallback
+import com.github.dockerjava.api.command.EventsCmd
+import com.github.dockerjava.api.model.Event
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class DockerEventStreamTest extends Specification {
+
+    DockerClient dockerClient = Stub()
+    EventsCmd eventsCmd = Stub()
+    ResultCallback<Event> callback
+
+    def setup() {
+        dockerClient.eventsCmd() >> eventsCmd
+        eventsCmd.withEventTypeFilter(_) >> eventsCmd
+        eventsCmd.exec(_) >> { args ->
+            callback = args[0]
+            callback.onStart({ } as Closeable)
+            callback
+        }
+    }
+
+    def "dispatches events matching the filter to every listener"() {
+        given:
+        def stream = new DockerEventStream(dockerClient)
+        def all = stream.subscribe({ true }, 10)
+        def started = stream.subscribe({ it.action == 'start' }, 10)
+
+        when:
+        callback.onNext(event('create'))
+        callback.onNext(event('start'))
+
+        then:
+        all.poll(0, TimeUnit.MILLISECONDS).action == 'create'
+        all.poll(0, TimeUnit.MILLISECONDS).action == 'start'
+        started.poll(0, TimeUnit.MILLISECONDS).action == 'start'
+        started.poll(0, TimeUnit.MILLISECONDS) == null
+    }
+
+    def "drops oldest events if queue of listener is full"() {
+        given:
+        def stream = new DockerEventStream(dockerClient)
+        def subscription = stream.subscribe({ true }, 2)
+
+        when:
+        callback.onNext(event('create'))
+        callback.onNext(event('start'))
+        callback.onNext(event('die'))
+
+        then:
+        subscription.poll(0, TimeUnit.MILLISECONDS).action == 'start'
+        subscription.poll(0, TimeUnit.MILLISECONDS).action == 'die'
+        subscription.poll(0, TimeUnit.MILLISECONDS) == null
+    }
+
+    def "closing a subscription removes the listener"() {
+        given:
+        def stream = new DockerEventStream(dockerClient)
+        def subscription = stream.subscribe({ true }, 10)
+
+        when:
+        subscription.close()
+        callback.onNext(event('start'))
+
+        then:
+        stream.listenerCount == 0
+        subscription.poll(0, TimeUnit.MILLISECONDS) == null
+    }
+
+    def "becomes inactive if the stream fails"() {
+        given:
+        def stream = new DockerEventStream(dockerClient)
+        def subscription = stream.subscribe({ true }, 10)
+
+        when:
+        callback.onError(new IOException('connection reset'))
+
+        then:
+        !stream.active
+        !subscription.active
+    }
+
+    private static Event event(String action) {
+        JsonMapper.builder().build().convertValue([Type: 'container', Action: action], Event)
+    }
+}
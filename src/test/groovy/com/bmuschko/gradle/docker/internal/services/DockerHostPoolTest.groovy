@@ -0,0 +1,89 @@
+package com.bmuschko.gradle.docker.internal.services
+
+import com.bmuschko.gradle.docker.DockerHostSelectionStrategy
+import spock.lang.Specification
+
+class DockerHostPoolTest extends Specification {
+
+    static final List<String> URLS = ['tcp://host1:2375', 'tcp://host2:2375', 'tcp://host3:2375']
+
+    def "selects hosts in turn for round-robin"() {
+        given:
+        def pool = new DockerHostPool(URLS, DockerHostSelectionStrategy.ROUND_ROBIN)
+
+        expect:
+        (1..4).collect { pool.acquire([]).url } == URLS + URLS[0]
+    }
+
+    def "selects host with fewest operations in flight"() {
+        given:
+        def pool = new DockerHostPool(URLS, DockerHostSelectionStrategy.LEAST_IN_FLIGHT)
+        def first = pool.acquire([])
+        def second = pool.acquire([])
+
+        expect:
+        first.url == URLS[0]
+        second.url == URLS[1]
+
+        when:
+        first.close()
+
+        then:
+        pool.acquire([]).url == URLS[0]
+    }
+
+    def "selects same host for same key with sticky strategy"() {
+        given:
+        def pool = new DockerHostPool(URLS, DockerHostSelectionStrategy.STICKY)
+        def other = new DockerHostPool(URLS, DockerHostSelectionStrategy.STICKY)
+
+        expect:
+        pool.acquire(['my/image:1.0']).url == other.acquire(['my/image:1.0']).url
+    }
+
+    def "keeps resources on the host they were first used with"() {
+        given:
+        def pool = new DockerHostPool(URLS, DockerHostSelectionStrategy.ROUND_ROBIN)
+        def url = pool.acquire(['my/image:1.0']).url
+
+        when:
+        pool.bind('container-id', url)
+
+        then:
+        pool.acquire(['my/image:1.0']).url == url
+        pool.acquire(['container-id']).url == url
+        pool.findBoundHost(['unknown', 'container-id']) == url
+    }
+
+    def "skips unhealthy hosts for new resources"() {
+        given:
+        def pool = new DockerHostPool(URLS, DockerHostSelectionStrategy.ROUND_ROBIN)
+        pool.markHealthy(URLS[0], false)
+        pool.markHealthy(URLS[1], false)
+
+        expect:
+        (1..3).collect { pool.acquire([]).url } == [URLS[2]] * 3
+    }
+
+    def "falls back to all hosts if none is healthy"() {
+        given:
+        def pool = new DockerHostPool(URLS, DockerHostSelectionStrategy.ROUND_ROBIN)
+        URLS.each { pool.markHealthy(it, false) }
+
+        expect:
+        (1..3).collect { pool.acquire([]).url } == URLS
+    }
+
+    def "releases in-flight count only once"() {
+        given:
+        def pool = new DockerHostPool(URLS, DockerHostSelectionStrategy.LEAST_IN_FLIGHT)
+        def lease = pool.acquire([])
+
+        when:
+        lease.close()
+        lease.close()
+
+        then:
+        pool.getInFlight(lease.url) == 0
+    }
+}
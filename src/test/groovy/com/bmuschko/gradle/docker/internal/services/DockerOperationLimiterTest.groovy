@@ -0,0 +1,84 @@
+package com.bmuschko.gradle.docker.internal.services
+
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import static com.bmuschko.gradle.docker.internal.services.DockerOperationCategory.BUILD
+import static com.bmuschko.gradle.docker.internal.services.DockerOperationCategory.STANDARD
+
+class DockerOperationLimiterTest extends Specification {
+
+    def "does not limit categories without budget"() {
+        given:
+        def limiter = new DockerOperationLimiter([:])
+
+        when:
+        def permits = (1..100).collect { limiter.acquire(STANDARD) }
+
+        then:
+        permits.size() == 100
+    }
+
+    def "blocks once budget of category is exhausted"() {
+        given:
+        def limiter = new DockerOperationLimiter([(BUILD): 1])
+        def permit = limiter.acquire(BUILD)
+        def acquired = new CountDownLatch(1)
+
+        when:
+        Thread.startDaemon {
+            limiter.acquire(BUILD).close()
+            acquired.countDown()
+        }
+
+        then:
+        !acquired.await(100, TimeUnit.MILLISECONDS)
+
+        when:
+        permit.close()
+
+        then:
+        acquired.await(5, TimeUnit.SECONDS)
+    }
+
+    def "other categories keep flowing while one is exhausted"() {
+        given:
+        def limiter = new DockerOperationLimiter([(BUILD): 1, (STANDARD): 1])
+        limiter.acquire(BUILD)
+
+        when:
+        def permit = limiter.acquire(STANDARD)
+
+        then:
+        permit != null
+    }
+
+    def "closing a permit twice releases only once"() {
+        given:
+        def limiter = new DockerOperationLimiter([(BUILD): 1])
+        def permit = limiter.acquire(BUILD)
+
+        when:
+        permit.close()
+        permit.close()
+        limiter.acquire(BUILD)
+        def acquired = new CountDownLatch(1)
+        Thread.startDaemon {
+            limiter.acquire(BUILD)
+            acquired.countDown()
+        }
+
+        then:
+        !acquired.await(100, TimeUnit.MILLISECONDS)
+    }
+
+    def "rejects non-positive budget"() {
+        when:
+        new DockerOperationLimiter([(BUILD): 0])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
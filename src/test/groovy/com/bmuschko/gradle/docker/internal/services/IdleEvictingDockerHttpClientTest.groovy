@@ -0,0 +1,71 @@
+package com.bmuschko.gradle.docker.internal.services
+
+import com.github.dockerjava.transport.DockerHttpClient
+import spock.lang.Specification
+
+import java.time.Duration
+
+class IdleEvictingDockerHttpClientTest extends Specification {
+
+    def delegates = []
+    def factory = {
+        def delegate = Mock(DockerHttpClient) {
+            execute(_) >> Mock(DockerHttpClient.Response)
+        }
+        delegates << delegate
+        delegate
+    }
+
+    def "creates delegate lazily"() {
+        when:
+        def client = new IdleEvictingDockerHttpClient(factory, Duration.ZERO)
+
+        then:
+        delegates.isEmpty()
+
+        when:
+        client.execute(Mock(DockerHttpClient.Request))
+
+        then:
+        delegates.size() == 1
+    }
+
+    def "does not evict while response is open"() {
+        given:
+        def client = new IdleEvictingDockerHttpClient(factory, Duration.ZERO)
+        def response = client.execute(Mock(DockerHttpClient.Request))
+
+        expect:
+        !client.evictIfIdle()
+
+        when:
+        response.close()
+        def evicted = client.evictIfIdle()
+
+        then:
+        evicted
+        1 * delegates[0].close()
+    }
+
+    def "does not evict before idle timeout elapsed"() {
+        given:
+        def client = new IdleEvictingDockerHttpClient(factory, Duration.ofHours(1))
+        client.execute(Mock(DockerHttpClient.Request)).close()
+
+        expect:
+        !client.evictIfIdle()
+    }
+
+    def "recreates delegate after eviction"() {
+        given:
+        def client = new IdleEvictingDockerHttpClient(factory, Duration.ZERO)
+        client.execute(Mock(DockerHttpClient.Request)).close()
+        client.evictIfIdle()
+
+        when:
+        client.execute(Mock(DockerHttpClient.Request)).close()
+
+        then:
+        delegates.size() == 2
+    }
+}
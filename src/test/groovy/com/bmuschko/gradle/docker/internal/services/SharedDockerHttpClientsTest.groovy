@@ -0,0 +1,64 @@
+package com.bmuschko.gradle.docker.internal.services
+
+import com.github.dockerjava.transport.DockerHttpClient
+import spock.lang.Specification
+
+import java.time.Duration
+
+class SharedDockerHttpClientsTest extends Specification {
+
+    def delegates = []
+    def factory = {
+        def delegate = Mock(DockerHttpClient) {
+            execute(_) >> Mock(DockerHttpClient.Response)
+        }
+        delegates << delegate
+        delegate
+    }
+
+    def "shares underlying client for same settings"() {
+        given:
+        def key = [UUID.randomUUID().toString()]
+
+        when:
+        SharedDockerHttpClients.get(key, factory, Duration.ofMinutes(5)).execute(Mock(DockerHttpClient.Request)).close()
+        SharedDockerHttpClients.get(key, factory, Duration.ofMinutes(5)).execute(Mock(DockerHttpClient.Request)).close()
+
+        then:
+        delegates.size() == 1
+    }
+
+    def "creates separate clients for different settings"() {
+        when:
+        SharedDockerHttpClients.get([UUID.randomUUID().toString()], factory, Duration.ofMinutes(5)).execute(Mock(DockerHttpClient.Request)).close()
+        SharedDockerHttpClients.get([UUID.randomUUID().toString()], factory, Duration.ofMinutes(5)).execute(Mock(DockerHttpClient.Request)).close()
+
+        then:
+        delegates.size() == 2
+    }
+
+    def "keeps underlying client open when closed at end of build"() {
+        given:
+        def client = SharedDockerHttpClients.get([UUID.randomUUID().toString()], factory, Duration.ofMinutes(5))
+        client.execute(Mock(DockerHttpClient.Request)).close()
+
+        when:
+        client.close()
+
+        then:
+        0 * delegates[0].close()
+    }
+
+    def "releases idle clients without a background thread"() {
+        given:
+        def client = SharedDockerHttpClients.get([UUID.randomUUID().toString()], factory, Duration.ZERO)
+        client.execute(Mock(DockerHttpClient.Request)).close()
+
+        when:
+        SharedDockerHttpClients.evictIdle()
+
+        then:
+        1 * delegates[0].close()
+        Thread.allStackTraces.keySet().every { it.name != 'docker-shared-client-evictor' }
+    }
+}
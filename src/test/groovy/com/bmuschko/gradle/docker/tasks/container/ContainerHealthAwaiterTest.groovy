@@ -0,0 +1,168 @@
+package com.bmuschko.gradle.docker.tasks.container
+
+import com.bmuschko.gradle.docker.domain.ExecProbe
+import com.bmuschko.gradle.docker.internal.services.DockerEventsService
+import com.fasterxml.jackson.databind.json.JsonMapper
+import com.github.dockerjava.api.DockerClient
+import com.github.dockerjava.api.command.InspectContainerCmd
+import com.github.dockerjava.api.command.InspectContainerResponse
+import com.github.dockerjava.api.model.Event
+import org.gradle.api.GradleException
+import org.gradle.api.logging.Logger
+import spock.lang.Specification
+
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.function.Predicate
+
+class ContainerHealthAwaiterTest extends Specification {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build()
+
+    DockerClient dockerClient = Stub()
+    InspectContainerCmd inspectCmd = Stub()
+    List<Event> events = []
+    boolean eventsActive = true
+
+    ContainerHealthAwaiter.EventSubscriber subscriber = { Predicate<Event> filter ->
+        def queue = new LinkedBlockingQueue<Event>(events.findAll { filter.test(it) })
+        [poll: { long timeout, TimeUnit unit -> queue.poll(timeout, unit) }, isActive: { eventsActive }, close: {}] as DockerEventsService.Subscription
+    }
+
+    def setup() {
+        dockerClient.inspectContainerCmd('abc') >> inspectCmd
+    }
+
+    def "returns if container is healthy already"() {
+        given:
+        inspectCmd.exec() >> container(true, 'healthy')
+
+        when:
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, subscriber, 'abc', null, true, Stub(Logger))
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "returns on health status event without waiting for the next poll"() {
+        given:
+        inspectCmd.exec() >> container(true, 'starting')
+        events << event('health_status: healthy')
+        long started = System.nanoTime()
+
+        when:
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, subscriber, 'abc', new ExecProbe(20000, 10000, 10000, 1), true, Stub(Logger))
+
+        then:
+        System.nanoTime() - started < 5_000_000_000L
+    }
+
+    def "polls health status if events are not available"() {
+        given:
+        inspectCmd.exec() >>> [container(true, 'starting'), container(true, 'starting'), container(true, 'starting'), container(true, 'healthy')]
+        eventsActive = false
+
+        when:
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, subscriber, 'abc', new ExecProbe(5000, 10, 100, 2), true, Stub(Logger))
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "fails if container is unhealthy"() {
+        given:
+        inspectCmd.exec() >> container(true, 'unhealthy')
+
+        when:
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, subscriber, 'abc', null, true, Stub(Logger))
+
+        then:
+        def e = thrown(GradleException)
+        e.message == "Container 'abc' is unhealthy."
+    }
+
+    def "keeps waiting on unhealthy container if requested"() {
+        given:
+        inspectCmd.exec() >>> [container(true, 'unhealthy'), container(true, 'unhealthy'), container(true, 'healthy')]
+
+        when:
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, subscriber, 'abc', new ExecProbe(5000, 10, 100, 2), false, Stub(Logger))
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "ignores events of other containers"() {
+        given:
+        inspectCmd.exec() >> container(true, 'starting')
+        events << event('health_status: healthy', 'other')
+
+        when:
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, subscriber, 'abc', new ExecProbe(100, 10, 50, 2), true, Stub(Logger))
+
+        then:
+        def e = thrown(GradleException)
+        e.message.startsWith("Container 'abc' did not become healthy in a timely fashion")
+    }
+
+    def "fails if container stops"() {
+        given:
+        inspectCmd.exec() >> container(true, 'starting')
+        events << event('die')
+
+        when:
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, subscriber, 'abc', null, true, Stub(Logger))
+
+        then:
+        def e = thrown(GradleException)
+        e.message == "Container 'abc' stopped before it became healthy."
+    }
+
+    def "fails if container does not define a health check"() {
+        given:
+        inspectCmd.exec() >> container(true, null)
+
+        when:
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, subscriber, 'abc', null, true, Stub(Logger))
+
+        then:
+        def e = thrown(GradleException)
+        e.message == "Container 'abc' does not define a health check."
+    }
+
+    def "fails if container does not become healthy within poll time"() {
+        given:
+        inspectCmd.exec() >> container(true, 'starting')
+
+        when:
+        ContainerHealthAwaiter.awaitHealthy(dockerClient, subscriber, 'abc', new ExecProbe(100, 10, 50, 2), true, Stub(Logger))
+
+        then:
+        def e = thrown(GradleException)
+        e.message.startsWith("Container 'abc' did not become healthy in a timely fashion")
+    }
+
+    def "maps events to health status"() {
+        expect:
+        ContainerHealthAwaiter.toStatus(event(action)) == status
+
+        where:
+        action                      | status
+        'health_status: healthy'    | 'healthy'
+        'health_status: unhealthy'  | 'unhealthy'
+        'die'                       | 'stopped'
+        'start'                     | null
+    }
+
+    private static InspectContainerResponse container(boolean running, String healthStatus) {
+        def state = [Running: running]
+        if (healthStatus) {
+            state.Health = [Status: healthStatus]
+        }
+        MAPPER.convertValue([Id: 'abc123', State: state], InspectContainerResponse)
+    }
+
+    private static Event event(String action, String containerId = 'abc123') {
+        MAPPER.convertValue([Type: 'container', Action: action, Actor: [ID: containerId]], Event)
+    }
+}
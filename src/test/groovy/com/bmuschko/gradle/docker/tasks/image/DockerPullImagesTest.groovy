@@ -0,0 +1,69 @@
+package com.bmuschko.gradle.docker.tasks.image
+
+import com.fasterxml.jackson.databind.json.JsonMapper
+import com.github.dockerjava.api.model.PullResponseItem
+import spock.lang.Specification
+
+class DockerPullImagesTest extends Specification {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build()
+
+    def "groups images resolving to the same manifest"() {
+        given:
+        def images = ['app:1', 'app:latest', 'other:1', 'app:2', 'unknown:1']
+        def digestReferences = [
+            'app:1'     : 'registry-1.docker.io/library/app@sha256:a',
+            'app:latest': 'registry-1.docker.io/library/app@sha256:a',
+            'other:1'   : 'registry-1.docker.io/library/other@sha256:a',
+            'app:2'     : 'registry-1.docker.io/library/app@sha256:b'
+        ]
+
+        expect:
+        DockerPullImages.groupByDigest(images, digestReferences) == [['app:1', 'app:latest'], ['other:1'], ['app:2'], ['unknown:1']]
+    }
+
+    def "sums up sizes of downloaded layers"() {
+        given:
+        def progress = new DockerPullImages.PullProgress()
+
+        when:
+        [
+            [id: 'a', status: 'Pulling fs layer'],
+            [id: 'b', status: 'Already exists'],
+            [id: 'a', status: 'Downloading', progressDetail: [current: 100, total: 1000]],
+            [id: 'c', status: 'Downloading', progressDetail: [current: 50, total: 500]],
+            [id: 'a', status: 'Downloading', progressDetail: [current: 900, total: 1000]],
+            [id: 'a', status: 'Download complete'],
+            [id: 'a', status: 'Extracting', progressDetail: [current: 2000, total: 3000]],
+            [status: 'Digest: sha256:abc']
+        ].each { progress.update(MAPPER.convertValue(it, PullResponseItem)) }
+
+        then:
+        progress.bytes == 1500
+    }
+
+    def "formats bytes"() {
+        expect:
+        DockerPullImages.formatBytes(bytes) == formatted
+
+        where:
+        bytes                    | formatted
+        0                        | '0 B'
+        1023                     | '1023 B'
+        1536                     | '1.5 KB'
+        5 * 1024 * 1024          | '5.0 MB'
+        3L * 1024 * 1024 * 1024  | '3.0 GB'
+    }
+
+    def "formats bytes independent of default locale"() {
+        given:
+        def defaultLocale = Locale.default
+        Locale.default = Locale.GERMANY
+
+        expect:
+        DockerPullImages.formatBytes(1536) == '1.5 KB'
+
+        cleanup:
+        Locale.default = defaultLocale
+    }
+}
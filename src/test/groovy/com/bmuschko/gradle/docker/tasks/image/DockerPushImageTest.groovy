@@ -0,0 +1,40 @@
+package com.bmuschko.gradle.docker.tasks.image
+
+import spock.lang.Specification
+
+class DockerPushImageTest extends Specification {
+
+    def "groups images sharing layers within the same registry"() {
+        given:
+        def images = ['r1/app:1', 'r1/app:latest', 'r1/other:1', 'r2/app:1']
+        def registries = ['r1/app:1': 'r1', 'r1/app:latest': 'r1', 'r1/other:1': 'r1', 'r2/app:1': 'r2']
+        def layers = [
+            'r1/app:1'     : ['sha256:a', 'sha256:b'],
+            'r1/app:latest': ['sha256:a', 'sha256:b'],
+            'r1/other:1'   : ['sha256:c'],
+            'r2/app:1'     : ['sha256:a', 'sha256:b']
+        ]
+
+        expect:
+        DockerPushImage.groupBySharedLayers(images, registries, layers) == [['r1/app:1', 'r1/app:latest'], ['r1/other:1'], ['r2/app:1']]
+    }
+
+    def "groups images sharing layers through other images"() {
+        given:
+        def images = ['a', 'b', 'c', 'd']
+        def registries = [a: 'r', b: 'r', c: 'r', d: 'r']
+        def layers = [a: ['sha256:1'], b: ['sha256:2'], c: ['sha256:3'], d: ['sha256:3', 'sha256:2', 'sha256:1']]
+
+        expect:
+        DockerPushImage.groupBySharedLayers(images, registries, layers) == [['a', 'b', 'c', 'd']]
+    }
+
+    def "keeps images without known layers in separate groups"() {
+        given:
+        def images = ['a', 'b']
+        def registries = [a: 'r', b: 'r']
+
+        expect:
+        DockerPushImage.groupBySharedLayers(images, registries, [:]) == [['a'], ['b']]
+    }
+}
@@ -0,0 +1,22 @@
+package com.bmuschko.gradle.docker.tasks.image
+
+import spock.lang.Specification
+
+class RegistryImageResolverTest extends Specification {
+
+    def "matches platform of local image"() {
+        expect:
+        RegistryImageResolver.matchesPlatform(os, arch, platform) == expected
+
+        where:
+        os      | arch    | platform            | expected
+        'linux' | 'amd64' | null                | true
+        'linux' | 'amd64' | 'linux'             | true
+        'linux' | 'amd64' | 'linux/amd64'       | true
+        'linux' | 'amd64' | 'LINUX/AMD64'       | true
+        'linux' | 'amd64' | 'linux/arm64'       | false
+        'linux' | 'arm64' | 'linux/arm64/v8'    | false
+        'linux' | 's390x' | 'darwin'            | false
+        null    | null    | 'linux/amd64'       | false
+    }
+}